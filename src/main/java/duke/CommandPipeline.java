@@ -0,0 +1,233 @@
+package duke;
+
+import duke.commands.Command;
+import duke.exceptions.DukeException;
+import duke.utils.Parser;
+import duke.utils.UiResponse;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs commands on a worker thread of their own, so that the thread submitting them, such
+ * as the JavaFX application thread, never waits for a save or a long listing. Commands
+ * run one at a time in the order they were submitted, and their outcomes are handed to
+ * a delivery Executor in the same order, e.g. <code>Platform::runLater</code>.
+ *
+ * <p>A Command that only reads the TaskList can be cancelled while it runs. It is then
+ * stopped the next time it adds a sentence to its response. Commands that change the
+ * TaskList always run to the end, so that the TaskList and the disk never disagree.
+ *
+ * <p>The response of a Command that only reads the TaskList may also be delivered in
+ * parts while it is being built, a fixed number of rows at a time, so that the first rows
+ * of a long listing are shown in the same time however long the listing is.
+ */
+public class CommandPipeline {
+    /** Response delivered in place of the response of a cancelled Command. */
+    public static final String CANCELLED_RESPONSE = "Stopped before finishing, as you asked.";
+    /** Number of rows delivered at a time as a partial response. */
+    public static final int ROWS_PER_PARTIAL_RESPONSE = 100;
+
+    private final Duke duke;
+    private final Executor deliverer;
+    private final ExecutorService worker;
+    private final UiResponse ui = new UiResponse();
+    //Reused by every query, as queries run one at a time on the worker thread
+    private final PartialResponses partialResponses = new PartialResponses();
+    private final CancellableResponse queryUi = new CancellableResponse();
+    private final CancellableResponse streamedQueryUi = new CancellableResponse(this.partialResponses);
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private long queryCount;
+    //Numbers of the query running at the moment, 0 if none, and of the last query cancelled
+    private volatile long runningQuery;
+    private volatile long cancelledQuery;
+
+    /**
+     * Constructor. Starts the worker thread.
+     *
+     * @param duke      Duke that executes the Commands
+     * @param deliverer Executor on which responses and errors are delivered
+     */
+    public CommandPipeline(Duke duke, Executor deliverer) {
+        this.duke = duke;
+        this.deliverer = deliverer;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "duke-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queues a line of user input to be parsed and executed after the lines submitted before it.
+     *
+     * @param input      line of user input
+     * @param onResponse receives Duke's response, on the delivery Executor
+     * @param onError    receives the reason the input could not be executed, on the delivery Executor
+     */
+    public void submit(String input, Consumer<String> onResponse, Consumer<DukeException> onError) {
+        submit(input, null, onResponse, onError);
+    }
+
+    /**
+     * Queues a line of user input to be parsed and executed after the lines submitted before it,
+     * delivering the response of a Command that only reads the TaskList in parts. The rows not
+     * delivered as a partial response, if any, make up the final response.
+     *
+     * @param input             line of user input
+     * @param onPartialResponse receives rows of the response as they are built, on the delivery Executor
+     * @param onResponse        receives the rest of Duke's response, on the delivery Executor
+     * @param onError           receives the reason the input could not be executed, on the delivery Executor
+     */
+    public void submit(String input, Consumer<String> onPartialResponse, Consumer<String> onResponse,
+            Consumer<DukeException> onError) {
+        this.pendingCount.incrementAndGet();
+        this.worker.execute(() -> run(input, onPartialResponse, onResponse, onError));
+    }
+
+    /**
+     * Cancels the Command running at the moment, if it only reads the TaskList.
+     *
+     * @return true if a Command was asked to stop
+     */
+    public boolean cancel() {
+        long query = this.runningQuery;
+        if (query == 0) {
+            return false;
+        }
+        //A query that has finished meanwhile is left alone, as the next one has another number
+        this.cancelledQuery = query;
+        return true;
+    }
+
+    /**
+     * Returns the number of lines submitted whose outcome has not been delivered yet.
+     *
+     * @return number of pending lines
+     */
+    public int getPendingCount() {
+        return this.pendingCount.get();
+    }
+
+    /**
+     * Cancels the running query, lets every Command already submitted finish and stops the
+     * worker thread. Must be called before Duke shuts down.
+     */
+    public void shutdown() {
+        cancel();
+        this.worker.shutdown();
+        try {
+            while (!this.worker.awaitTermination(1, TimeUnit.SECONDS)) {
+                cancel();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(String input, Consumer<String> onPartialResponse, Consumer<String> onResponse,
+            Consumer<DukeException> onError) {
+        String response = null;
+        DukeException error = null;
+        PartialResponses partialResponses = null;
+        try {
+            Command c = Parser.parse(input);
+            if (c.isMutating()) {
+                response = this.duke.execute(c, this.ui);
+            } else {
+                UiResponse queryUi = this.queryUi;
+                if (onPartialResponse != null) {
+                    partialResponses = this.partialResponses;
+                    partialResponses.start(onPartialResponse);
+                    queryUi = this.streamedQueryUi;
+                }
+                this.queryCount++;
+                this.runningQuery = this.queryCount;
+                try {
+                    response = this.duke.execute(c, queryUi);
+                } finally {
+                    this.runningQuery = 0;
+                }
+            }
+            if (partialResponses != null) {
+                response = partialResponses.drain() + response;
+            }
+        } catch (DukeException e) {
+            error = e;
+        } catch (CancellationException e) {
+            response = partialResponses == null ? CANCELLED_RESPONSE : partialResponses.drain() + CANCELLED_RESPONSE;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            error = new DukeException("The command could not be completed!");
+        }
+
+        String finalResponse = response;
+        DukeException finalError = error;
+        this.deliverer.execute(() -> {
+            this.pendingCount.decrementAndGet();
+            if (finalError == null) {
+                onResponse.accept(finalResponse);
+            } else {
+                onError.accept(finalError);
+            }
+        });
+    }
+
+    /** Collects the rows of a streamed response and delivers them a batch at a time. */
+    private class PartialResponses implements Consumer<CharSequence> {
+        private final StringBuilder rows = new StringBuilder();
+        private Consumer<String> onPartialResponse;
+        private int rowCount;
+
+        /** Starts collecting the rows of a new response, forgetting any left from the last one. */
+        void start(Consumer<String> onPartialResponse) {
+            this.onPartialResponse = onPartialResponse;
+            this.rows.setLength(0);
+            this.rowCount = 0;
+        }
+
+        @Override
+        public void accept(CharSequence row) {
+            this.rows.append(row);
+            this.rowCount++;
+            if (this.rowCount == ROWS_PER_PARTIAL_RESPONSE) {
+                String batch = drain();
+                Consumer<String> callback = this.onPartialResponse;
+                CommandPipeline.this.deliverer.execute(() -> callback.accept(batch));
+            }
+        }
+
+        /** Returns the rows not delivered yet, which are then forgotten. */
+        String drain() {
+            String batch = this.rows.toString();
+            this.rows.setLength(0);
+            this.rowCount = 0;
+            return batch;
+        }
+    }
+
+    /** UiResponse of the queries, which stops the running query once it is cancelled. */
+    private class CancellableResponse extends UiResponse {
+        CancellableResponse() {
+            super();
+        }
+
+        CancellableResponse(Consumer<CharSequence> sink) {
+            super(sink);
+        }
+
+        //Every sentence is ended here however it was built, so this check covers every appender
+        @Override
+        public void endSentence() {
+            if (CommandPipeline.this.cancelledQuery == CommandPipeline.this.runningQuery) {
+                throw new CancellationException();
+            }
+            super.endSentence();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package duke;
+
+import duke.exceptions.DukeException;
+import duke.utils.Ui;
+import duke.utils.UiResponse;
+
+/**
+ * Headless entry point for Duke, which reads commands from standard input and prints the
+ * responses to standard output. Nothing in here refers to <code>javafx</code> classes, so
+ * neither the JavaFX toolkit nor its classes are loaded, which keeps the startup time of
+ * scripted invocations low. Typing "bye" or closing the input ends the session.
+ * Responses are printed sentence by sentence as they are built, so the first rows of a
+ * long listing appear without waiting for the last.
+ *
+ * <p>When started with <code>--batch &lt;file&gt;</code>, the file is run as a single
+ * batch, as the "exec" command does, and Duke exits straight afterwards.
+ */
+public class ConsoleLauncher {
+    /**
+     * Runs Duke on the console.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length == 2 && args[0].equals("--batch")) {
+            System.exit(runBatch(args[1]));
+        }
+        System.exit(runInteractive(new Ui()));
+    }
+
+    /**
+     * Answers the commands read through <code>ui</code> until "bye" is typed or the input
+     * ends, then saves any outstanding changes.
+     *
+     * @param ui Ui through which commands are read and responses printed
+     * @return exit status of the process
+     */
+    static int runInteractive(Ui ui) {
+        Duke duke = new Duke();
+        UiResponse streamingUi = new UiResponse(ui::printStreamedSentence);
+        ui.printWelcomeMsg();
+        String input;
+        while ((input = ui.readLine()) != null && !input.trim().equalsIgnoreCase("bye")) {
+            if (input.trim().length() == 0) {
+                continue;
+            }
+            try {
+                String rest = duke.getResponse(input, streamingUi);
+                if (rest.length() > 0) {
+                    ui.printStreamedSentence(rest);
+                }
+                ui.endStreamedResponse();
+            } catch (DukeException e) {
+                ui.printErrorMsg(e);
+            }
+        }
+        ui.printExitMsg();
+        ui.flush();
+        return shutdown(duke);
+    }
+
+    private static int runBatch(String filePath) {
+        Duke duke = new Duke();
+        int exitStatus = 0;
+        try {
+            System.out.print(duke.runScript(filePath));
+        } catch (DukeException e) {
+            System.err.println(e.getMessage());
+            exitStatus = 1;
+        }
+        return Math.max(exitStatus, shutdown(duke));
+    }
+
+    private static int shutdown(Duke duke) {
+        try {
+            duke.shutdown();
+            return 0;
+        } catch (DukeException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+    }
+}
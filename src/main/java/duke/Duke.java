@@ -1,6 +1,7 @@
 package duke;
 
 import duke.commands.Command;
+import duke.commands.ExecCommand;
 import duke.exceptions.DukeException;
 import duke.tasks.Task;
 import duke.utils.Storage;
@@ -10,25 +11,38 @@ import duke.utils.Parser;
 
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Main class that brings together all the implemented classes to execute the Duke
- * tasking logic.
+ * tasking logic. A single Duke can serve several sessions at once, such as the GUI and
+ * the clients of a DukeServer.
  */
 public class Duke {
     public static String saveFilePath = "data/savedTasks.txt";
+    public static final long COMMIT_WINDOW_MILLIS = 20;
     private Storage storage;
     private TaskList allTasks;
-    private UiResponse ui;
+    private final ReentrantLock mutationLock = new ReentrantLock();
 
     /**
      * Constructor. Will attempt to load any saved tasks specified in the
      * Duke.savedFilePath class attribute. If no saved tasks are found, then
-     * an empty TaskList is initialised.
+     * an empty TaskList is initialised. Changes are written behind the Commands, in
+     * batches gathered over Duke.COMMIT_WINDOW_MILLIS.
      */
     public Duke() {
-        this.ui = new UiResponse();
-        this.storage = new Storage(Duke.saveFilePath);
+        this(Duke.saveFilePath);
+    }
+
+    /**
+     * Constructor. Will attempt to load any saved tasks from <code>filePath</code>.
+     *
+     * @param filePath String representing the path to the file in which Task data is saved
+     */
+    public Duke(String filePath) {
+        this.storage = new Storage(filePath);
+        this.storage.enableWriteBehind(Duke.COMMIT_WINDOW_MILLIS);
         try {
             this.allTasks = this.storage.load();
         } catch (DukeException e) {
@@ -37,11 +51,82 @@ public class Duke {
     }
 
     /**
-     * Generates a response to user input.
+     * Generates a response to user input, building it in a UiResponse of its own so that
+     * calls from different threads never share one.
      */
     public String getResponse(String input) throws DukeException, NoSuchElementException {
-        Command c = Parser.parse(input);
+        return getResponse(input, new UiResponse());
+    }
+
+    /**
+     * Generates a response to user input, building it in <code>ui</code>. May be called
+     * from several threads at once, each with its own UiResponse: Commands that only read
+     * the TaskList are executed straight away against its last published version, while
+     * Commands that change it are executed one at a time.
+     *
+     * @param input line of user input
+     * @param ui    UiResponse of the session the input came from
+     * @return String representing Duke's response
+     * @throws DukeException thrown when the input is invalid or the Command fails.
+     */
+    public String getResponse(String input, UiResponse ui) throws DukeException {
+        return execute(Parser.parse(input), ui);
+    }
+
+    /**
+     * Executes a Command that has already been parsed, building the response in
+     * <code>ui</code>, in the same way as <code>getResponse</code>.
+     *
+     * @param c  Command to be executed
+     * @param ui UiResponse of the session the Command came from
+     * @return String representing Duke's response
+     * @throws DukeException thrown when the Command fails.
+     */
+    public String execute(Command c, UiResponse ui) throws DukeException {
         assert c != null : "Command object cannot be null";
-        return c.execute(this.ui, this.storage, this.allTasks);
+        if (!c.isMutating()) {
+            //Never waits for a Command that changes the TaskList
+            return c.execute(ui, this.storage, this.allTasks);
+        }
+        this.mutationLock.lock();
+        try {
+            return c.execute(ui, this.storage, this.allTasks);
+        } finally {
+            this.mutationLock.unlock();
+        }
+    }
+
+    /**
+     * Runs every line of a script as a single batch, as the "exec" command does.
+     *
+     * @param filePath path to the script, which holds one command per line
+     * @return String representing Duke's response
+     * @throws DukeException thrown when the script cannot be read or one of its lines fails.
+     */
+    public String runScript(String filePath) throws DukeException {
+        this.mutationLock.lock();
+        try {
+            return new ExecCommand(filePath).execute(new UiResponse(), this.storage, this.allTasks);
+        } finally {
+            this.mutationLock.unlock();
+        }
+    }
+
+    /**
+     * Writes out every change that has not yet reached the disk. Must be called
+     * before the application exits.
+     *
+     * @throws DukeException thrown when the outstanding changes could not be saved.
+     */
+    public void shutdown() throws DukeException {
+        this.mutationLock.lock();
+        try {
+            this.storage.close();
+        } catch (DukeException e) {
+            //Changes that could not be written to the journal are captured by a full snapshot instead
+            this.storage.save(this.allTasks);
+        } finally {
+            this.mutationLock.unlock();
+        }
     }
 }
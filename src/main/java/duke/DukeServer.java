@@ -0,0 +1,223 @@
+package duke;
+
+import duke.commands.Command;
+import duke.commands.ExecCommand;
+import duke.exceptions.DukeException;
+import duke.utils.Parser;
+import duke.utils.UiResponse;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a single Duke to several clients at once over TCP, listening on the loopback
+ * interface only. Every connection is a session with its own thread and UiResponse, so
+ * sessions only contend for the TaskList itself, which Duke shares between them.
+ *
+ * <p>The protocol is line-based. A client sends one command per line, and Duke answers
+ * every command with the lines of its response followed by a line holding a single ".".
+ * Response lines starting with "." are sent with an extra "." in front, and errors are
+ * sent as a single line starting with "!". Responses are flushed once the client has no
+ * further commands waiting, so clients may send several commands before reading. Lines
+ * are written as soon as the Command adds them to its response, so the first rows of a
+ * long listing leave without waiting for the last.
+ *
+ * <p>The "exec" command is refused, so that clients cannot run files on the server.
+ */
+public class DukeServer {
+    /** Port that the server listens on when none is given. */
+    public static final int DEFAULT_PORT = 4554;
+
+    private final Duke duke;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessionExecutor;
+    private final Set<Socket> openSockets = Collections.synchronizedSet(new HashSet<Socket>());
+    private Thread acceptor;
+
+    /**
+     * Constructor. Binds the server socket, without accepting connections yet.
+     *
+     * @param duke Duke whose TaskList is served
+     * @param port port to listen on, or 0 to pick any free port
+     * @throws DukeException thrown when the port cannot be bound.
+     */
+    public DukeServer(Duke duke, int port) throws DukeException {
+        this.duke = duke;
+        try {
+            this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new DukeException("Unable to listen on port " + port + "!");
+        }
+        this.sessionExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "duke-session");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Runs a server for the tasks saved in <code>Duke.saveFilePath</code> until the
+     * process is stopped.
+     *
+     * @param args optionally the port to listen on
+     */
+    public static void main(String[] args) {
+        Duke duke = new Duke();
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            DukeServer server = new DukeServer(duke, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    duke.shutdown();
+                } catch (DukeException e) {
+                    System.err.println(e.getMessage());
+                }
+            }));
+            System.out.println("Duke is listening on port " + server.getPort());
+            server.start();
+        } catch (NumberFormatException e) {
+            System.err.println("Usage: DukeServer [port]");
+            System.exit(1);
+        } catch (DukeException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return local port of the server socket
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /** Starts accepting connections on a background thread. */
+    public synchronized void start() {
+        if (this.acceptor == null) {
+            this.acceptor = new Thread(this::acceptConnections, "duke-server");
+            this.acceptor.start();
+        }
+    }
+
+    /** Stops accepting connections and closes every open session. */
+    public void close() {
+        try {
+            this.serverSocket.close();
+        } catch (IOException e) {
+            //Closing is best effort
+        }
+        synchronized (this.openSockets) {
+            for (Socket socket : this.openSockets) {
+                closeQuietly(socket);
+            }
+        }
+        this.sessionExecutor.shutdown();
+    }
+
+    private void acceptConnections() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                this.openSockets.add(socket);
+                this.sessionExecutor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                //Thrown once the server socket is closed, which ends the loop
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            UiResponse ui = new UiResponse(sentence -> {
+                try {
+                    writeLines(writer, sentence);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            String input;
+            while ((input = reader.readLine()) != null) {
+                try {
+                    writeLines(writer, this.duke.execute(parseRemote(input), ui));
+                } catch (DukeException e) {
+                    writer.write("! ");
+                    writer.write(e.getMessage().trim());
+                    writer.write('\n');
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                writer.write(".\n");
+                if (!reader.ready()) {
+                    writer.flush();
+                }
+            }
+        } catch (SocketException e) {
+            //The client or the server closed the connection
+        } catch (IOException e) {
+            System.err.println("Session ended: " + e.getMessage());
+        } finally {
+            this.openSockets.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Parses a line sent by a client, refusing the Commands that clients may not run.
+     *
+     * @param input line sent by the client
+     * @return Command to be executed for the client
+     * @throws DukeException thrown when the line is invalid or holds an "exec" command.
+     */
+    private static Command parseRemote(String input) throws DukeException {
+        Command c = Parser.parse(input);
+        if (c instanceof ExecCommand) {
+            throw new DukeException("Scripts cannot be run over the network!");
+        }
+        return c;
+    }
+
+    private static void writeLines(Writer writer, CharSequence text) throws IOException {
+        int start = 0;
+        while (start < text.length()) {
+            int end = start;
+            while (end < text.length() && text.charAt(end) != '\n') {
+                end++;
+            }
+            if (end > start && text.charAt(start) == '.') {
+                writer.write('.');
+            }
+            writer.append(text, start, end);
+            writer.write('\n');
+            start = end + 1;
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            //Closing is best effort
+        }
+    }
+}
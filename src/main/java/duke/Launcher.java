@@ -2,8 +2,25 @@ package duke;
 
 import javafx.application.Application;
 
+import java.util.Arrays;
+
 public class Launcher {
+    /**
+     * Starts the GUI, or runs Duke on the console when started with <code>--cli</code> or
+     * <code>--batch &lt;file&gt;</code>, or as a DukeServer when started with
+     * <code>--server [port]</code>. JavaFX is only initialised for the GUI.
+     *
+     * @param args command line arguments
+     */
     public static void main(String[] args) {
-        Application.launch(Main.class, args);
+        if (args.length > 0 && args[0].equals("--cli")) {
+            ConsoleLauncher.main(new String[0]);
+        } else if (args.length > 0 && args[0].equals("--batch")) {
+            ConsoleLauncher.main(args);
+        } else if (args.length > 0 && args[0].equals("--server")) {
+            DukeServer.main(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            Application.launch(Main.class, args);
+        }
     }
 }
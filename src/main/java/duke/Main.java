@@ -2,6 +2,7 @@ package duke;
 
 import java.io.IOException;
 
+import duke.exceptions.DukeException;
 import duke.gui.MainWindow;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -15,6 +16,7 @@ import javafx.stage.Stage;
 public class Main extends Application {
 
     private Duke duke = new Duke();
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -25,10 +27,23 @@ public class Main extends Application {
             scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
             stage.setScene(scene);
             stage.setTitle("Brian's Duke");
-            fxmlLoader.<MainWindow>getController().setDuke(duke);
+            mainWindow = fxmlLoader.<MainWindow>getController();
+            mainWindow.setDuke(duke);
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.close();
+        }
+        try {
+            duke.shutdown();
+        } catch (DukeException e) {
+            System.err.println(e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -1,26 +1,55 @@
 package duke.commands;
 
 import duke.exceptions.DukeException;
+import duke.tasks.Deadline;
+import duke.tasks.Event;
 import duke.tasks.Task;
+import duke.tasks.ToDo;
+import duke.utils.DukeDate;
 import duke.utils.Storage;
 import duke.utils.TaskList;
 import duke.utils.UiResponse;
 
-import java.util.ArrayList;
-
-/** Command invoked when "todo", "event" or "deadline" commands are encountered. */
+/**
+ * Command invoked when "todo", "event" or "deadline" commands are encountered. The times
+ * of the Task are parsed along with the command, so that the Task can be created directly.
+ */
 public class AddCommand extends Command {
-    ArrayList<String> commandParams;
+    private final String description;
+    private final DukeDate firstTime;
+    private final DukeDate secondTime;
+
+    /**
+     * Constructor for a Command adding a ToDo Task.
+     *
+     * @param description String description of the ToDo Task
+     */
+    public AddCommand(String description) {
+        this(description, null, null);
+    }
+
+    /**
+     * Constructor for a Command adding a Deadline Task.
+     *
+     * @param description String describing title/details of Deadline
+     * @param deadline    DukeDate representing time of Deadline
+     */
+    public AddCommand(String description, DukeDate deadline) {
+        this(description, deadline, null);
+    }
 
     /**
-     * Constructor.
+     * Constructor for a Command adding an Event Task.
      *
-     * @param commandParams ArrayList containing the individual String components
-     *                      required for the different Task types.
+     * @param description String describing title/details of Event
+     * @param startTime   DukeDate representing start time of Event
+     * @param endTime     DukeDate representing end time of Event
      */
-    public AddCommand(ArrayList<String> commandParams) {
-        assert commandParams.size() != 0 : "Command Params cannot be empty";
-        this.commandParams = commandParams;
+    public AddCommand(String description, DukeDate startTime, DukeDate endTime) {
+        assert description.length() != 0 : "Task Description cannot be empty";
+        this.description = description;
+        this.firstTime = startTime;
+        this.secondTime = endTime;
     }
 
     /**
@@ -34,29 +63,23 @@ public class AddCommand extends Command {
      * @throws DukeException re-thrown from underlying method calls.
      */
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
-        Task t = new Task("Uninitialised Task");
-        switch (this.commandParams.get(0)) {
-        case "todo":
-            t = allTasks.addToDo(this.commandParams.get(1));
-            break;
-        case "event":
-            t = allTasks.addEvent(this.commandParams.get(1), this.commandParams.get(2), this.commandParams.get(2));
-            break;
-        case "deadline":
-            t = allTasks.addDeadline(this.commandParams.get(1), this.commandParams.get(2));
-            break;
-        default:
-            break;
+        Task t;
+        if (this.secondTime != null) {
+            t = allTasks.add(new Event(this.description, this.firstTime, this.secondTime));
+        } else if (this.firstTime != null) {
+            t = allTasks.add(new Deadline(this.description, this.firstTime));
+        } else {
+            t = allTasks.add(new ToDo(this.description));
         }
 
         //UI response
         ui.reset();
         ui.addSentence("Got it. I've added this task:");
-        ui.addSentence("\t" + t);
-        ui.addSentence("Now you have " + allTasks.size() + " tasks in the list");
+        ui.addTask(t);
+        ui.append("Now you have ").append(allTasks.size()).append(" tasks in the list").endSentence();
 
-        //Save TaskList
-        storage.save(allTasks);
+        //Record change in journal
+        storage.recordAdd(t);
 
         return ui.getResponse();
     }
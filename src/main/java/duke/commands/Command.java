@@ -24,4 +24,15 @@ public class Command {
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
         return "Duke has heard you!";
     }
+
+    /**
+     * Tells whether executing this Command may change the TaskList or what is saved on
+     * disk. Commands that do not are executed straight away, alongside any other Command,
+     * while Commands that do are executed one at a time.
+     *
+     * @return true unless the Command only reads the TaskList
+     */
+    public boolean isMutating() {
+        return true;
+    }
 }
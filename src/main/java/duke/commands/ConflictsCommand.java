@@ -0,0 +1,49 @@
+package duke.commands;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Event;
+import duke.utils.ScheduleAnalyzer;
+import duke.utils.Storage;
+import duke.utils.TaskList;
+import duke.utils.UiResponse;
+
+import java.util.ArrayList;
+
+/** Command invoked when the "conflicts" command is encountered. */
+public class ConflictsCommand extends Command {
+    /**
+     * Will list every pair of Events in TaskList whose times overlap. This method will
+     * not cause the TaskList to be saved.
+     *
+     * @param ui       UiResponse object that is responsible for returning a String response to GUI
+     * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
+     * @param allTasks TaskList object containing all tasks.
+     * @return String representing Duke's response
+     * @throws DukeException re-thrown from underlying method calls.
+     */
+    public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
+        ArrayList<Event[]> conflicts = new ScheduleAnalyzer(allTasks).findConflicts();
+
+        ui.reset();
+        if (conflicts.size() == 0) {
+            ui.addSentence("None of your events clash!");
+        } else {
+            ui.addSentence("These events clash:");
+            for (Event[] pair : conflicts) {
+                ui.addTaskWithId(pair[0]);
+                ui.addTaskWithId(pair[1]);
+                ui.addSentence("");
+            }
+        }
+        return ui.getResponse();
+    }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
+}
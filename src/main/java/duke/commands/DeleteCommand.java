@@ -8,20 +8,20 @@ import duke.utils.UiResponse;
 
 /** Command invoked when the "delete" command is encountered. */
 public class DeleteCommand extends Command {
-    int taskNum;
+    private final long taskId;
 
     /**
      * Constructor.
      *
-     * @param taskNum 1-indexed number associated with a given task
+     * @param taskId ID of the task
      */
-    public DeleteCommand(int taskNum) {
-        this.taskNum = taskNum;
+    public DeleteCommand(long taskId) {
+        this.taskId = taskId;
     }
 
     /**
-     * Deletes the task associated with <code>taskNum</code> and will save the
-     * TaskList.
+     * Deletes the task associated with <code>taskId</code> and will record the
+     * deletion in the journal.
      *
      * @param ui       UiResponse object that is responsible for returning a String response to GUI
      * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
@@ -31,16 +31,16 @@ public class DeleteCommand extends Command {
      */
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
         //Delete Task
-        Task t = allTasks.deleteTask(this.taskNum);
+        Task t = allTasks.deleteTask(this.taskId);
 
         //UI Response
         ui.reset();
         ui.addSentence("Noted. I've removed this task:");
-        ui.addSentence("\t" + t);
-        ui.addSentence("Now you have " + allTasks.size() + " tasks in the list.");
+        ui.addTask(t);
+        ui.append("Now you have ").append(allTasks.size()).append(" tasks in the list.").endSentence();
 
-        //Save TaskList
-        storage.save(allTasks);
+        //Record change in journal
+        storage.recordDelete(this.taskId);
         return ui.getResponse();
     }
 }
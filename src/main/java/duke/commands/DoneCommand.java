@@ -8,19 +8,19 @@ import duke.utils.UiResponse;
 
 /** Command invoked when the "done" command is encountered. */
 public class DoneCommand extends Command {
-    private int taskNum;
+    private final long taskId;
 
     /**
      * Constructor.
      *
-     * @param taskNum 1-indexed number of task
+     * @param taskId ID of the task
      */
-    public DoneCommand(int taskNum) {
-        this.taskNum = taskNum;
+    public DoneCommand(long taskId) {
+        this.taskId = taskId;
     }
 
     /**
-     * Will mark the task associated with <code>taskNum</code> as done.
+     * Will mark the task associated with <code>taskId</code> as done.
      *
      * @param ui       UiResponse object that is responsible for returning a String response to GUI
      * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
@@ -30,15 +30,15 @@ public class DoneCommand extends Command {
      */
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
         //Mark task as complete
-        Task t = allTasks.completeTask(this.taskNum);
+        Task t = allTasks.completeTask(this.taskId);
 
         //UI Response
         ui.reset();
         ui.addSentence("Nice! I've marked this task as done: ");
-        ui.addSentence("\t" + t);
+        ui.addTask(t);
 
-        //Save TaskList
-        storage.save(allTasks);
+        //Record change in journal
+        storage.recordDone(this.taskId);
         return ui.getResponse();
     }
 }
@@ -0,0 +1,61 @@
+package duke.commands;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+import duke.utils.Storage;
+import duke.utils.TaskList;
+import duke.utils.UiResponse;
+
+import java.util.ArrayList;
+
+/** Command invoked when the "due" command is encountered. */
+public class DueCommand extends Command {
+    private final long fromMinute;
+    private final long toMinute;
+
+    /**
+     * Constructor.
+     *
+     * @param fromMinute earliest time as an epoch minute, or Long.MIN_VALUE if there is none
+     * @param toMinute   latest time as an epoch minute
+     */
+    public DueCommand(long fromMinute, long toMinute) {
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
+    }
+
+    /**
+     * Will list the Deadlines that are not done yet and are due by the latest time (and
+     * no earlier than the earliest time, if given), in the order they are due. This method
+     * will not cause the TaskList to be saved.
+     *
+     * @param ui       UiResponse object that is responsible for returning a String response to GUI
+     * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
+     * @param allTasks TaskList object containing all tasks.
+     * @return String representing Duke's response
+     * @throws DukeException re-thrown from underlying method calls.
+     */
+    public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
+        ArrayList<Task> dueTasks = allTasks.findDue(this.fromMinute, this.toMinute);
+
+        ui.reset();
+        if (dueTasks.size() == 0) {
+            ui.addSentence("Nothing is due then!");
+        } else {
+            ui.addSentence("Here are the deadlines due then:");
+            for (Task t : dueTasks) {
+                ui.addTaskWithId(t);
+            }
+        }
+        return ui.getResponse();
+    }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package duke.commands;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+import duke.utils.Storage;
+import duke.utils.TaskList;
+import duke.utils.UiResponse;
+
+import java.util.ArrayList;
+
+/** Command invoked when the "events" command is encountered. */
+public class EventsCommand extends Command {
+    private final long fromMinute;
+    private final long toMinute;
+
+    /**
+     * Constructor. Passing the same time twice asks for the Events on at that time.
+     *
+     * @param fromMinute start of the window as an epoch minute
+     * @param toMinute   end of the window as an epoch minute
+     */
+    public EventsCommand(long fromMinute, long toMinute) {
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
+    }
+
+    /**
+     * Will list the Events that are on at the given time, or at any time within the given
+     * window, in order of their start times. This method will not cause the TaskList to be saved.
+     *
+     * @param ui       UiResponse object that is responsible for returning a String response to GUI
+     * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
+     * @param allTasks TaskList object containing all tasks.
+     * @return String representing Duke's response
+     * @throws DukeException thrown when the window ends before it starts.
+     */
+    public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
+        if (this.toMinute < this.fromMinute) {
+            throw new DukeException("The window ends before it starts!");
+        }
+        ArrayList<Task> events = allTasks.findEvents(this.fromMinute, this.toMinute);
+
+        ui.reset();
+        if (events.size() == 0) {
+            ui.addSentence("No events are on then!");
+        } else {
+            ui.addSentence("Here are the events on then:");
+            for (Task t : events) {
+                ui.addTaskWithId(t);
+            }
+        }
+        return ui.getResponse();
+    }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package duke.commands;
+
+import duke.exceptions.DukeException;
+import duke.utils.Parser;
+import duke.utils.Storage;
+import duke.utils.TaskList;
+import duke.utils.UiResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+
+/**
+ * Command invoked when the "exec" command is encountered, and when Duke is started with
+ * the <code>--batch</code> flag. Runs every line of a script as a Command, as a single
+ * transaction: either every line succeeds and the changes are persisted together, or the
+ * first failing line undoes the changes made by the lines before it.
+ */
+public class ExecCommand extends Command {
+    private final String filePath;
+
+    /**
+     * Constructor.
+     *
+     * @param filePath path to the script, which holds one command per line
+     */
+    public ExecCommand(String filePath) {
+        assert filePath.length() != 0 : "File path cannot be empty";
+        this.filePath = filePath;
+    }
+
+    /**
+     * Streams the script line by line, parsing and executing each line against
+     * <code>allTasks</code>. Blank lines are skipped. The changes are written to disk
+     * once, after the last line.
+     *
+     * @param ui       UiResponse object that is responsible for returning a String response to GUI
+     * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
+     * @param allTasks TaskList object containing all tasks.
+     * @return String representing Duke's response
+     * @throws DukeException thrown when the script cannot be read or one of its lines fails,
+     *                       in which case no changes are made.
+     */
+    public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
+        allTasks.beginTransaction();
+        try {
+            storage.beginBatch();
+        } catch (DukeException e) {
+            allTasks.rollbackTransaction();
+            throw e;
+        }
+
+        //Responses to the individual lines are not shown, so their sentences are dropped as they are ended
+        UiResponse lineUi = new UiResponse(sentence -> { });
+        int lineNumber = 0;
+        int commandCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(this.filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().length() == 0) {
+                    continue;
+                }
+                Parser.parse(line).execute(lineUi, storage, allTasks);
+                commandCount++;
+            }
+        } catch (IOException | InvalidPathException e) {
+            rollback(storage, allTasks);
+            throw new DukeException("Unable to read script " + this.filePath + "!");
+        } catch (DukeException e) {
+            rollback(storage, allTasks);
+            throw new DukeException("No changes were made, as line " + lineNumber + " of " + this.filePath
+                    + " failed:\n\t" + e.getMessage().trim());
+        } catch (RuntimeException e) {
+            rollback(storage, allTasks);
+            throw e;
+        }
+        try {
+            storage.commitBatch(allTasks);
+        } catch (DukeException e) {
+            allTasks.rollbackTransaction();
+            throw e;
+        }
+        allTasks.commitTransaction();
+
+        ui.reset();
+        ui.append("Ran ").append(commandCount).append(" commands from ").append(this.filePath).endSentence();
+        ui.append("Now you have ").append(allTasks.size()).append(" tasks in the list").endSentence();
+        return ui.getResponse();
+    }
+
+    private static void rollback(Storage storage, TaskList allTasks) {
+        storage.rollbackBatch();
+        allTasks.rollbackTransaction();
+    }
+}
@@ -10,19 +10,49 @@ import java.util.ArrayList;
 
 /** Command invoked when the "find" command is encountered. */
 public class FindCommand extends Command {
-    private String keyword;
+    private static final int MAX_TYPOS_IN_SHORT_TERM = 1;
+    private static final int MAX_TYPOS = 2;
+    private static final int MIN_LENGTH_FOR_MAX_TYPOS = 8;
+
+    /** Ways of matching the keyword against the descriptions of Tasks. */
+    public enum Mode {
+        SUBSTRING, WORDS, FUZZY
+    }
+
+    private final Mode mode;
+    private final String keyword;
+    private final Page page;
+
+    /**
+     * Constructor. Shows every matching Task.
+     *
+     * @param mode    how keyword is matched against descriptions
+     * @param keyword keyword to be searched for
+     */
+    public FindCommand(Mode mode, String keyword) {
+        this(mode, keyword, Page.ALL);
+    }
 
     /**
      * Constructor.
      *
-     * @param keyword String representing the keyword to be searched for.
+     * @param mode    how keyword is matched against descriptions
+     * @param keyword keyword to be searched for
+     * @param page    part of the matching Tasks to be shown
      */
-    public FindCommand(String keyword) {
+    public FindCommand(Mode mode, String keyword, Page page) {
+        assert keyword.length() != 0 : "Keyword cannot be empty";
+        this.mode = mode;
         this.keyword = keyword;
+        this.page = page;
     }
 
     /**
-     * Will search through all tasks in TaskList for keyword.
+     * Will search the descriptions of all tasks in TaskList for keyword, ignoring case.
+     * Depending on the search mode, the descriptions must contain keyword, every word of
+     * keyword, or keyword with a few typos. Only the matches on the page are shown, followed
+     * by the command that shows the next ones if there are more.
+     *
      * @param ui       UiResponse object that is responsible for returning a String response to GUI
      * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
      * @param allTasks TaskList object containing all tasks.
@@ -30,27 +60,53 @@ public class FindCommand extends Command {
      * @throws DukeException re-thrown from underlying method calls.
      */
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
-        ArrayList<Task> allTasksArrList = allTasks.getArrayList();
-
-        ArrayList<Task> filteredTasks = new ArrayList<Task>();
-        for (Task t : allTasksArrList) {
-            if (t.toString().contains(this.keyword)) {
-                filteredTasks.add(t);
-            }
+        long afterId = this.page.getAfterId();
+        int lookupCount = this.page.getLookupCount();
+        ArrayList<Task> filteredTasks;
+        String flag;
+        switch (this.mode) {
+        case WORDS:
+            filteredTasks = allTasks.findWords(this.keyword, afterId, lookupCount);
+            flag = "-w ";
+            break;
+        case FUZZY:
+            int maxTypos = this.keyword.length() < MIN_LENGTH_FOR_MAX_TYPOS ? MAX_TYPOS_IN_SHORT_TERM : MAX_TYPOS;
+            filteredTasks = allTasks.findFuzzy(this.keyword, maxTypos, afterId, lookupCount);
+            flag = "-f ";
+            break;
+        default:
+            filteredTasks = allTasks.findSubstring(this.keyword, afterId, lookupCount);
+            flag = "";
+            break;
         }
 
         ui.reset();
-        if (filteredTasks.size() == 0) {
+        int start = this.page.getSkipCount();
+        int end = Math.min(filteredTasks.size(), start + this.page.getLimit());
+        if (start >= end) {
             ui.addSentence("Sorry, no tasks match your search term!");
         } else {
-            int counter = 1;
             ui.addSentence("Here are the tasks that contain your search term:");
-            for (Task t : filteredTasks) {
-                ui.addSentence("\t" + counter + ". " + t);
-                counter++;
+            for (int i = start; i < end; i++) {
+                Task t = filteredTasks.get(i);
+                ui.addTaskWithId(t);
+            }
+            if (end < filteredTasks.size()) {
+                long lastId = filteredTasks.get(end - 1).getId();
+                ui.addSentence("Type \"find " + flag + this.keyword + this.page.getContinuation(lastId)
+                        + "\" to see more.");
             }
         }
 
         return ui.getResponse();
     }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
 }
@@ -0,0 +1,69 @@
+package duke.commands;
+
+import duke.exceptions.DukeException;
+import duke.utils.DukeDate;
+import duke.utils.ScheduleAnalyzer;
+import duke.utils.Storage;
+import duke.utils.TaskList;
+import duke.utils.UiResponse;
+
+import java.util.ArrayList;
+
+/** Command invoked when the "freeslots" command is encountered. */
+public class FreeSlotsCommand extends Command {
+    private final long minLength;
+    private final long fromMinute;
+    private final long toMinute;
+
+    /**
+     * Constructor.
+     *
+     * @param minLength  minimum number of minutes of a free slot
+     * @param fromMinute start of the range to search as an epoch minute
+     * @param toMinute   end of the range to search as an epoch minute
+     */
+    public FreeSlotsCommand(long minLength, long fromMinute, long toMinute) {
+        assert minLength > 0 : "Free slots must last at least a minute";
+        this.minLength = minLength;
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
+    }
+
+    /**
+     * Will list the gaps between Events that last at least the given number of minutes
+     * within the given range. This method will not cause the TaskList to be saved.
+     *
+     * @param ui       UiResponse object that is responsible for returning a String response to GUI
+     * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
+     * @param allTasks TaskList object containing all tasks.
+     * @return String representing Duke's response
+     * @throws DukeException thrown when the range ends before it starts.
+     */
+    public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
+        if (this.toMinute < this.fromMinute) {
+            throw new DukeException("The range ends before it starts!");
+        }
+        ArrayList<long[]> freeSlots = new ScheduleAnalyzer(allTasks)
+                .findFreeSlots(this.fromMinute, this.toMinute, this.minLength);
+
+        ui.reset();
+        if (freeSlots.size() == 0) {
+            ui.addSentence("Sorry, there is no free slot that long!");
+        } else {
+            ui.addSentence("You are free at these times:");
+            for (long[] slot : freeSlots) {
+                ui.addSentence("\t" + new DukeDate(slot[0]) + " - " + new DukeDate(slot[1]));
+            }
+        }
+        return ui.getResponse();
+    }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
+}
@@ -21,16 +21,30 @@ public class HelpCommand extends Command {
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
         ui.reset();
         ui.addSentence("Welcome to the Duke Help Page!");
-        ui.addSentence("\tlist");
+        ui.addSentence("\tlist [--page <n>] [--limit <n>] [--after <id>]");
         ui.addSentence("\t\tType 'list' to obtain an exhaustive list of current Tasks");
+        ui.addSentence("\t\tThe options show <limit> Tasks at a time, from page <page> or after Task <id>");
         ui.addSentence("\tsave");
-        ui.addSentence("\t\tType 'save' to save the current list of Tasks to disc");
-        ui.addSentence("\tdelete <num>");
-        ui.addSentence("\t\tDeletes the <num>-th Task");
-        ui.addSentence("\tdone <num>");
-        ui.addSentence("\t\tMarks the <num>-th Task as complete");
-        ui.addSentence("\tfine <keyword>");
-        ui.addSentence("\t\tFinds <keyword> in the current list of Tasks");
+        ui.addSentence("\t\tType 'save' to write a full snapshot of the current list of Tasks to disc");
+        ui.addSentence("\tdelete <id>");
+        ui.addSentence("\t\tDeletes the Task numbered <id> in 'list'");
+        ui.addSentence("\tdone <id>");
+        ui.addSentence("\t\tMarks the Task numbered <id> in 'list' as complete");
+        ui.addSentence("\tfind [-w | -f] <keyword> [--page <n>] [--limit <n>] [--after <id>]");
+        ui.addSentence("\t\tFinds the Tasks whose descriptions contain <keyword>");
+        ui.addSentence("\t\t-w matches every word in <keyword>, -f also matches <keyword> with typos");
+        ui.addSentence("\tdue [<start_time> -] <end_time>");
+        ui.addSentence("\t\tLists the Deadlines not done yet that are due by <end_time>");
+        ui.addSentence("\tevents <time> | events <start_time> - <end_time>");
+        ui.addSentence("\t\tLists the Events on at <time>, or at any time from <start_time> to <end_time>");
+        ui.addSentence("\tconflicts");
+        ui.addSentence("\t\tLists every pair of Events whose times overlap");
+        ui.addSentence("\tfreeslots <minutes> <start_time> - <end_time>");
+        ui.addSentence("\t\tLists the gaps of at least <minutes> between Events from <start_time> to <end_time>");
+        ui.addSentence("\toverdue");
+        ui.addSentence("\t\tLists the Deadlines not done yet whose time has passed");
+        ui.addSentence("\texec <file>");
+        ui.addSentence("\t\tRuns every line of <file> as a command, making no changes if any line fails");
         ui.addSentence("\ttodo <description>");
         ui.addSentence("\t\tAdds a ToDo Task with <description>");
         ui.addSentence("\tevent <description> /at <start_time> - <end_time>");
@@ -43,4 +57,13 @@ public class HelpCommand extends Command {
         ui.addSentence("Hope this helps! :)");
         return ui.getResponse();
     }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
 }
@@ -6,14 +6,31 @@ import duke.utils.Storage;
 import duke.utils.TaskList;
 import duke.utils.UiResponse;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 
 /** Command invoked when the "list" command is encountered. */
 public class ListCommand extends Command {
+    private final Page page;
+
+    /** Constructor. Lists every Task. */
+    public ListCommand() {
+        this(Page.ALL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param page part of the TaskList to be listed
+     */
+    public ListCommand(Page page) {
+        this.page = page;
+    }
+
     /**
      * Will iterate through the Tasks in TaskList and print out the
-     * tasks one by one with a counter. This method will not cause the
-     * TaskList to be saved.
+     * tasks one by one with their IDs. This method will not cause the
+     * TaskList to be saved. If there are more Tasks than fit on the page,
+     * the response ends with the command that lists the next ones.
      *
      * @param ui       UiResponse object that is responsible for returning a String response to GUI
      * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
@@ -22,15 +39,27 @@ public class ListCommand extends Command {
      * @throws DukeException re-thrown from underlying method calls.
      */
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
-        ArrayList<Task> allTasksArrList = allTasks.getArrayList();
-
-        int counter = 1;
         ui.reset();
         ui.addSentence("Here are the tasks in your list:");
-        for (Task t : allTasksArrList) {
-            ui.addSentence("\t" + counter + ". " + t);
-            counter++;
+        Iterator<Task> tasks = allTasks.iteratorAfter(this.page.getAfterId(), this.page.getSkipCount());
+        long lastId = 0;
+        for (int i = 0; i < this.page.getLimit() && tasks.hasNext(); i++) {
+            Task t = tasks.next();
+            ui.addTaskWithId(t);
+            lastId = t.getId();
+        }
+        if (tasks.hasNext()) {
+            ui.addSentence("Type \"list" + this.page.getContinuation(lastId) + "\" to see more.");
         }
         return ui.getResponse();
     }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
 }
@@ -0,0 +1,47 @@
+package duke.commands;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+import duke.utils.DukeDate;
+import duke.utils.Storage;
+import duke.utils.TaskList;
+import duke.utils.UiResponse;
+
+import java.util.ArrayList;
+
+/** Command invoked when the "overdue" command is encountered. */
+public class OverdueCommand extends Command {
+    /**
+     * Will list the Deadlines that are not done yet although their time has passed, in
+     * the order they were due. This method will not cause the TaskList to be saved.
+     *
+     * @param ui       UiResponse object that is responsible for returning a String response to GUI
+     * @param storage  Storage object respnsible for saving the Tasks into a pre-defined format
+     * @param allTasks TaskList object containing all tasks.
+     * @return String representing Duke's response
+     * @throws DukeException re-thrown from underlying method calls.
+     */
+    public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
+        ArrayList<Task> overdueTasks = allTasks.findDue(Long.MIN_VALUE, DukeDate.now().getEpochMinute() - 1);
+
+        ui.reset();
+        if (overdueTasks.size() == 0) {
+            ui.addSentence("Well done, nothing is overdue!");
+        } else {
+            ui.addSentence("These deadlines have passed:");
+            for (Task t : overdueTasks) {
+                ui.addTaskWithId(t);
+            }
+        }
+        return ui.getResponse();
+    }
+
+    /**
+     * Will not change the TaskList.
+     *
+     * @return false
+     */
+    public boolean isMutating() {
+        return false;
+    }
+}
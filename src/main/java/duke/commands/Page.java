@@ -0,0 +1,70 @@
+package duke.commands;
+
+/**
+ * Part of the results of a "list" or "find" command to be shown, as given by the
+ * <code>--after</code>, <code>--page</code> and <code>--limit</code> options. Results are
+ * counted from the first Task with an ID above <code>afterId</code>, which lets a response
+ * end with the command that continues where it left off.
+ */
+public class Page {
+    /** Page holding every result. */
+    public static final Page ALL = new Page(0, 1, Integer.MAX_VALUE);
+    /** Number of results on a page when only <code>--page</code> is given. */
+    public static final int DEFAULT_LIMIT = 50;
+
+    private final long afterId;
+    private final int number;
+    private final int limit;
+
+    /**
+     * Constructor.
+     *
+     * @param afterId results start after the Task with this ID, or 0 to start at the first Task
+     * @param number  1-based number of the page, counting pages of <code>limit</code> results
+     * @param limit   most results shown
+     */
+    public Page(long afterId, int number, int limit) {
+        assert number >= 1 && limit >= 1 : "Pages are numbered from 1 and hold at least one result";
+        this.afterId = afterId;
+        this.number = number;
+        this.limit = limit;
+    }
+
+    public long getAfterId() {
+        return this.afterId;
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Returns the number of results to skip before the page starts.
+     *
+     * @return number of results on the pages before this one
+     */
+    public int getSkipCount() {
+        return (int) Math.min((long) (this.number - 1) * this.limit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of results needed to fill every page up to this one, plus one to
+     * tell whether there are more.
+     *
+     * @return number of results to look for
+     */
+    public int getLookupCount() {
+        return (int) Math.min((long) this.number * this.limit + 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the options that show the results after <code>lastId</code>, with as many
+     * results as this Page.
+     *
+     * @param lastId ID of the last Task shown
+     * @return options to be typed after the command, starting with a space
+     */
+    public String getContinuation(long lastId) {
+        return " --after " + lastId + " --limit " + this.limit;
+    }
+}
@@ -9,7 +9,8 @@ import duke.utils.UiResponse;
 public class SaveCommand extends Command {
     /**
      * Upon execution, will change the <code>isExit</code> boolean is true. Will also
-     * save the TaskList a final time before Duke exits.
+     * save the TaskList a final time before Duke exits, reporting how long the save took
+     * and how much disk space it reclaimed.
      *
      * @param ui       UiResponse object that is responsible for returning a String response to GUI
      * @param storage  Storage object responsible for saving the Tasks into a pre-defined format
@@ -20,6 +21,9 @@ public class SaveCommand extends Command {
     public String execute(UiResponse ui, Storage storage, TaskList allTasks) throws DukeException {
         //Save TaskList
         storage.save(allTasks);
-        return "Duke has saved the latest data!";
+        ui.reset();
+        ui.addSentence("Duke has saved the latest data!");
+        ui.addSentence(storage.getCompactor().getLastReport());
+        return ui.getResponse();
     }
 }
@@ -0,0 +1,57 @@
+package duke.gui;
+
+import javafx.geometry.Insets;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.text.Text;
+
+/**
+ * Parent class of the dialog boxes, each consisting of an ImageView and the text of a message.
+ * The nodes are created directly rather than loaded from FXML, so creating a dialog box
+ * involves neither parsing nor reflection.
+ */
+public abstract class DialogBox extends HBox {
+    private static final double TEXT_WIDTH = 400.0;
+    private static final double PICTURE_SIZE = 99.0;
+    private static final Insets PADDING = new Insets(15.0, 5.0, 15.0, 5.0);
+
+    protected final Text dialog;
+    protected final ImageView displayPicture;
+
+    /**
+     * Constructor. Subclasses add <code>dialog</code> and <code>displayPicture</code> to the
+     * children in the order they should appear.
+     *
+     * @param text       String to be displayed in the dialog box
+     * @param img        Image to be displayed in the dialog box
+     * @param styleClass style class of the dialog box, as defined in styles.css
+     */
+    protected DialogBox(String text, Image img, String styleClass) {
+        this.dialog = new Text(text);
+        this.dialog.setWrappingWidth(TEXT_WIDTH);
+        this.dialog.getStyleClass().add("dialogText");
+
+        this.displayPicture = new ImageView(img);
+        this.displayPicture.setFitHeight(PICTURE_SIZE);
+        this.displayPicture.setFitWidth(PICTURE_SIZE);
+        this.displayPicture.setPickOnBounds(true);
+        this.displayPicture.setPreserveRatio(true);
+
+        this.setMaxHeight(Double.MAX_VALUE);
+        this.setMaxWidth(Double.MAX_VALUE);
+        this.setPrefWidth(TEXT_WIDTH);
+        this.setPadding(PADDING);
+        this.setHeight(Region.USE_COMPUTED_SIZE);
+        this.getStyleClass().add(styleClass);
+    }
+
+    /**
+     * Changes the text displayed, so that the dialog box can be reused for another message.
+     * @param text String to be displayed in the dialog box
+     */
+    public void setText(String text) {
+        this.dialog.setText(text);
+    }
+}
@@ -0,0 +1,51 @@
+package duke.gui;
+
+import duke.utils.Transcript;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * ListCell showing a single Transcript entry. Each cell creates at most one dialog box for
+ * the user and one for Duke, the first time it shows a message of each, and only changes
+ * their text as the cell is reused for other entries while scrolling. Together, the cells
+ * of a ListView thus act as a pool of dialog boxes as large as the screen.
+ */
+public class DialogCell extends ListCell<Transcript.Entry> {
+    private final Image userImage;
+    private final Image dukeImage;
+    private UserDialogBox userDialog;
+    private DukeDialogBox dukeDialog;
+
+    /**
+     * Constructor.
+     *
+     * @param userImage Image to be displayed beside the user's messages
+     * @param dukeImage Image to be displayed beside Duke's messages
+     */
+    public DialogCell(Image userImage, Image dukeImage) {
+        this.userImage = userImage;
+        this.dukeImage = dukeImage;
+    }
+
+    @Override
+    protected void updateItem(Transcript.Entry entry, boolean isEmpty) {
+        super.updateItem(entry, isEmpty);
+        if (isEmpty || entry == null) {
+            setGraphic(null);
+        } else if (entry.isUser()) {
+            if (this.userDialog == null) {
+                this.userDialog = new UserDialogBox(entry.getText(), this.userImage);
+            } else {
+                this.userDialog.setText(entry.getText());
+            }
+            setGraphic(this.userDialog);
+        } else {
+            if (this.dukeDialog == null) {
+                this.dukeDialog = new DukeDialogBox(entry.getText(), this.dukeImage);
+            } else {
+                this.dukeDialog.setText(entry.getText());
+            }
+            setGraphic(this.dukeDialog);
+        }
+    }
+}
@@ -1,59 +1,21 @@
 package duke.gui;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
-import javafx.scene.text.Text;
-import javafx.scene.image.ImageView;
 import javafx.scene.image.Image;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.Region;
-import javafx.fxml.FXMLLoader;
-import javafx.fxml.FXML;
-
-import java.io.IOException;
-import java.util.Collections;
 
 /**
  * This control represents a dialog box consisting of an ImageView to represent Duke's face and a label
  * containing text response generated by Duke.
  */
-public class DukeDialogBox extends HBox {
-    @FXML
-    private Text dialog;
-    @FXML
-    private ImageView displayPicture;
-
+public class DukeDialogBox extends DialogBox {
     /**
-     * Constructor for DukeDialogBox.
+     * Constructor for DukeDialogBox. The ImageView is on the left and the text on the right.
      * @param text String to be displayed in DukeDialogbox
      * @param img Image to be displayed in DukeDialogbox
      */
     public DukeDialogBox(String text, Image img) {
-        try {
-            String fxmlResourcePath = "/view/DukeDialogBox.fxml";
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource(fxmlResourcePath));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        this.dialog.setText(text);
-        this.displayPicture.setImage(img);
-        this.setHeight(Region.USE_COMPUTED_SIZE);
-        this.flip();
-    }
-
-    /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
-     */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        super(text, img, "duke-panel");
+        this.getChildren().addAll(this.displayPicture, this.dialog);
+        this.setAlignment(Pos.TOP_LEFT);
     }
 }
@@ -1,64 +1,97 @@
 package duke.gui;
 
+import duke.CommandPipeline;
 import duke.Duke;
-import duke.exceptions.DukeException;
+import duke.utils.Transcript;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
-
-import java.util.NoSuchElementException;
 
 /**
  * Controller for MainWindow. Provides the layout for the other controls.
+ *
+ * <p>The chat history is shown in a ListView, which only creates dialog boxes for the
+ * messages on screen and reuses them while scrolling. The history itself is kept in a
+ * Transcript, which spills older messages to disk, so neither the scene graph nor memory
+ * grows with the length of the session.
+ *
+ * <p>Commands are run by a CommandPipeline off the JavaFX application thread, so the window
+ * stays responsive during a save or a long listing. The user can keep typing meanwhile:
+ * each message is shown straight away and answered in order. Pressing Escape cancels a
+ * long query.
  */
 public class MainWindow extends AnchorPane {
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Transcript.Entry> transcriptView;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
 
-    private Duke duke;
+    private CommandPipeline pipeline;
+    private Transcript transcript = new Transcript();
+    private TranscriptItems transcriptItems = new TranscriptItems(this.transcript);
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image dukeImage = new Image(this.getClass().getResourceAsStream("/images/DaDuke.png"));
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        this.transcriptView.setItems(this.transcriptItems);
+        this.transcriptView.setCellFactory(view -> new DialogCell(this.userImage, this.dukeImage));
+        this.userInput.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                this.pipeline.cancel();
+            }
+        });
     }
 
     public void setDuke(Duke d) {
-        this.duke = d;
+        this.pipeline = new CommandPipeline(d, Platform::runLater);
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Lets the commands already entered finish and deletes the messages spilled to disk.
+     * Called when the application exits.
+     */
+    public void close() {
+        this.pipeline.shutdown();
+        this.transcript.close();
+    }
+
+    /**
+     * Adds a message echoing user input to the transcript and queues the input to be run,
+     * after which Duke's reply is added as well. Long replies are added a batch of rows at
+     * a time while they are being built. Clears the user input straight away.
      */
     @FXML
     private void handleUserInput() {
-        try {
-            String input = this.userInput.getText();
-            String response = this.duke.getResponse(input);
-            assert response.length() != 0 : "Duke has no response (invalid behaviour)";
-            this.dialogContainer.getChildren().addAll(
-                    new UserDialogBox(input, this.userImage),
-                    new DukeDialogBox(response, this.dukeImage)
-            );
-            this.userInput.clear();
-        } catch (DukeException e) {
-            handleError("Sorry, I didn't understand your command! " + e.getMessage());
-        } catch (NoSuchElementException e) {
-            handleError("Sorry, please enter a command!");
+        String input = this.userInput.getText();
+        this.transcriptItems.append(true, input);
+        scrollToLatest();
+        this.userInput.clear();
+        this.userInput.setPromptText("Working on it... (press Esc to stop a long search)");
+        this.pipeline.submit(input, this::handlePartialResponse, this::handleResponse,
+                e -> handleError("Sorry, I didn't understand your command! " + e.getMessage()));
+    }
+
+    private void handlePartialResponse(String rows) {
+        this.transcriptItems.append(false, rows);
+        scrollToLatest();
+    }
+
+    private void handleResponse(String response) {
+        //Empty if every row was already added as part of a partial response
+        if (response.length() != 0) {
+            this.transcriptItems.append(false, response);
+            scrollToLatest();
         }
+        clearPromptIfDone();
     }
 
     /**
@@ -68,8 +101,18 @@ public class MainWindow extends AnchorPane {
      */
     private void handleError(String errorMsg) {
         assert errorMsg.length() != 0 : "Duke error message cannot be blank";
-        this.dialogContainer.getChildren().addAll(
-                new DukeDialogBox(errorMsg, this.dukeImage));
-        this.userInput.clear();
+        this.transcriptItems.append(false, errorMsg);
+        scrollToLatest();
+        clearPromptIfDone();
+    }
+
+    private void clearPromptIfDone() {
+        if (this.pipeline.getPendingCount() == 0) {
+            this.userInput.setPromptText("");
+        }
+    }
+
+    private void scrollToLatest() {
+        this.transcriptView.scrollTo(this.transcriptItems.size() - 1);
     }
 }
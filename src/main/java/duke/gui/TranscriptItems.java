@@ -0,0 +1,44 @@
+package duke.gui;
+
+import duke.utils.Transcript;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Read-only ObservableList over a Transcript, which lets a ListView show the whole chat
+ * history while only the entries on screen are ever asked for.
+ */
+public class TranscriptItems extends ObservableListBase<Transcript.Entry> {
+    private final Transcript transcript;
+
+    /**
+     * Constructor.
+     *
+     * @param transcript Transcript holding the entries
+     */
+    public TranscriptItems(Transcript transcript) {
+        this.transcript = transcript;
+    }
+
+    /**
+     * Adds an entry to the end of the Transcript and tells the ListView about it.
+     *
+     * @param isUser true if the entry was typed by the user, false if it is Duke's response
+     * @param text   text of the entry
+     */
+    public void append(boolean isUser, String text) {
+        beginChange();
+        int index = this.transcript.add(isUser, text);
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    @Override
+    public Transcript.Entry get(int index) {
+        return this.transcript.get(index);
+    }
+
+    @Override
+    public int size() {
+        return this.transcript.size();
+    }
+}
@@ -26,12 +26,32 @@ public class Deadline extends Task {
 
     }
 
+    /**
+     * Constructor.
+     *
+     * @param description String describing title/details of Deadline
+     * @param deadline    DukeDate representing time of Deadline
+     */
+    public Deadline(String description, DukeDate deadline) {
+        super(description);
+        this.deadline = deadline;
+    }
+
+    /**
+     * Getter method for the time of the Deadline.
+     *
+     * @return DukeDate representing time of Deadline
+     */
+    public DukeDate getDeadline() {
+        return this.deadline;
+    }
+
     /**
      * String representation of Deadline object.
      *
      * @return String representation of Deadline object
      */
-    public String toString() {
+    protected String renderDisplayString() {
         String statusIcon = getStatusIcon();
         return "[D][" + statusIcon + "] " + this.description + " (by: " + this.deadline + ")";
     }
@@ -42,8 +62,8 @@ public class Deadline extends Task {
      *
      * @return String representation of the Task (compatibility with Storage class)
      */
-    public String getStorageFormat() {
-        String storageString = "D | " + super.getStorageFormat() + " | " + this.deadline;
+    protected String renderStorageFormat() {
+        String storageString = "D | " + super.renderStorageFormat() + " | " + this.deadline;
         return storageString;
     }
 }
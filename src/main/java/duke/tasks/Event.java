@@ -29,12 +29,43 @@ public class Event extends Task {
 
     }
 
+    /**
+     * Constructor.
+     *
+     * @param description String describing title/details of Event
+     * @param startTime   DukeDate representing start time of Event
+     * @param endTime     DukeDate representing end time of Event
+     */
+    public Event(String description, DukeDate startTime, DukeDate endTime) {
+        super(description);
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    /**
+     * Getter method for the start time of the Event.
+     *
+     * @return DukeDate representing start time of Event
+     */
+    public DukeDate getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Getter method for the end time of the Event.
+     *
+     * @return DukeDate representing end time of Event
+     */
+    public DukeDate getEndTime() {
+        return this.endTime;
+    }
+
     /**
      * String representation of Event object.
      *
      * @return String representation of Event object
      */
-    public String toString() {
+    protected String renderDisplayString() {
         String statusIcon = getStatusIcon();
         return "[E][" + statusIcon + "] " + this.description + " (at: " + this.startTime + " - " + this.endTime + ")";
     }
@@ -45,8 +76,8 @@ public class Event extends Task {
      *
      * @return String representation of the Task (compatibility with Storage class)
      */
-    public String getStorageFormat() {
-        String storageString = "E | " + super.getStorageFormat() + " | " + this.startTime + " | " + this.endTime;
+    protected String renderStorageFormat() {
+        String storageString = "E | " + super.renderStorageFormat() + " | " + this.startTime + " | " + this.endTime;
         return storageString;
     }
 }
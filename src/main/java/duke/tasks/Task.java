@@ -1,9 +1,20 @@
 package duke.tasks;
 
-/** Parent class implementing the logic common to all Task types. */
-public class Task {
+/**
+ * Parent class implementing the logic common to all Task types.
+ *
+ * <p>The display and storage Strings of a Task are built on first use and reused
+ * until the Task changes, so listing or saving an unchanged Task does not create any
+ * new Strings. Subclasses provide the Strings through <code>renderDisplayString</code>
+ * and <code>renderStorageFormat</code>, and must call <code>invalidateRenderings</code>
+ * whenever a field they render changes.
+ */
+public class Task implements Cloneable {
     protected String description;
     protected boolean isDone;
+    private long id;
+    private String displayString;
+    private String storageFormat;
 
     /**
      * Constructor.
@@ -15,9 +26,60 @@ public class Task {
         this.isDone = false;
     }
 
+    /**
+     * Getter method for the ID of the Task. The ID is assigned when the Task is first
+     * added to a TaskList and does not change afterwards, even as other Tasks are deleted.
+     *
+     * @return positive ID of the Task, or 0 if it has not been assigned yet
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Setter method for the ID of the Task. Only meant to be called by TaskList and when
+     * re-creating a saved Task.
+     *
+     * @param id positive ID of the Task
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Getter method for the description of the Task.
+     *
+     * @return String description of the Task
+     */
+    public String getDescription() {
+        return this.description;
+    }
+
     /** Will set the <code>isDone</code> boolean to true. */
     public void markAsDone() {
-        this.isDone = true;
+        if (!this.isDone) {
+            this.isDone = true;
+            invalidateRenderings();
+        }
+    }
+
+    /**
+     * Returns a copy of the Task that is marked as done, leaving the Task itself unchanged.
+     * Used by TaskList, so that a Task already handed out never changes.
+     *
+     * @return done copy of the Task, or the Task itself if it is done already
+     */
+    public Task copyAsDone() {
+        if (this.isDone) {
+            return this;
+        }
+        try {
+            Task copy = (Task) super.clone();
+            copy.markAsDone();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
     }
 
     /**
@@ -39,12 +101,43 @@ public class Task {
         return isDone ? "\u2713" : "\u2718";
     }
 
+    /**
+     * Returns the String representation of the Task, building it only if the Task
+     * has changed since it was last asked for.
+     *
+     * @return String representation of the Task
+     */
+    public final String toString() {
+        String s = this.displayString;
+        if (s == null) {
+            s = renderDisplayString();
+            this.displayString = s;
+        }
+        return s;
+    }
+
+    /**
+     * Returns the String representation of the Task in a format that is compatible for
+     * the Storage object to read and write, building it only if the Task has changed
+     * since it was last asked for.
+     *
+     * @return String representation of the Task (compatibility with Storage class)
+     */
+    public final String getStorageFormat() {
+        String s = this.storageFormat;
+        if (s == null) {
+            s = renderStorageFormat();
+            this.storageFormat = s;
+        }
+        return s;
+    }
+
     /**
      * Generates a String representation of the Task.
      *
      * @return String representation of the Task
      */
-    public String toString() {
+    protected String renderDisplayString() {
         String statusIcon = getStatusIcon();
         return "[" + statusIcon + "] " + this.description;
     }
@@ -55,9 +148,15 @@ public class Task {
      *
      * @return String representation of the Task (compatibility with Storage class)
      */
-    public String getStorageFormat() {
+    protected String renderStorageFormat() {
         String doneStatusString = this.isDone ? "1" : "0";
         String storageString = doneStatusString + " | " + this.description;
         return storageString;
     }
+
+    /** Discards the cached display and storage Strings after the Task has changed. */
+    protected void invalidateRenderings() {
+        this.displayString = null;
+        this.storageFormat = null;
+    }
 }
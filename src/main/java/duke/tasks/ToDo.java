@@ -16,7 +16,7 @@ public class ToDo extends Task {
      *
      * @return String representation of ToDo object
      */
-    public String toString() {
+    protected String renderDisplayString() {
         String statusIcon = getStatusIcon();
         return "[T][" + statusIcon + "] " + this.description;
     }
@@ -27,8 +27,8 @@ public class ToDo extends Task {
      *
      * @return String representation of the Task (compatibility with Storage class)
      */
-    public String getStorageFormat() {
-        String storageString = "T | " + super.getStorageFormat();
+    protected String renderStorageFormat() {
+        String storageString = "T | " + super.renderStorageFormat();
         return storageString;
     }
 }
@@ -0,0 +1,264 @@
+package duke.utils;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Deadline;
+import duke.tasks.Event;
+import duke.tasks.Task;
+import duke.tasks.ToDo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Compact binary alternative to the pipe-delimited snapshot format. A file consists of a
+ * header followed by one record per Task:
+ * <pre>
+ *     header: magic "DUKE" (int) | version (short) | number of records (int)
+ *     record: tag (byte) | ID (long) | times (long per DukeDate) | description length (int) | UTF-8 description
+ * </pre>
+ * The lower bits of the tag hold the Task type and its highest bit the done flag. Deadlines
+ * store one time and Events two, each as an epoch minute, so no dates need to be parsed when
+ * the file is read back. Files of version 1 do not store IDs; their Tasks are numbered in
+ * order when they are loaded.
+ */
+public class BinaryTaskFormat {
+    public static final int MAGIC = 0x44554B45;
+    public static final short VERSION = 2;
+
+    static final short VERSION_WITHOUT_IDS = 1;
+
+    static final int HEADER_SIZE = 4 + 2 + 4;
+    //Tag, ID and description length of a record with an empty description
+    private static final int MIN_RECORD_SIZE = 1 + 4;
+    static final byte TODO_TAG = 1;
+    static final byte DEADLINE_TAG = 2;
+    static final byte EVENT_TAG = 3;
+    static final byte TYPE_MASK = 0x7F;
+    static final byte DONE_FLAG = (byte) 0x80;
+
+    /**
+     * Checks whether <code>file</code> starts with the header of this format.
+     *
+     * @param file File to check
+     * @return true if <code>file</code> is a binary task file
+     * @throws DukeException thrown when the file could not be read.
+     */
+    public static boolean isBinary(File file) throws DukeException {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] magic = new byte[4];
+            int read = in.read(magic);
+            return read == 4 && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        } catch (IOException e) {
+            throw new DukeException("Could not read " + file.getName() + "!");
+        }
+    }
+
+    /**
+     * Writes every Task into <code>file</code> through a buffer, replacing its previous
+     * contents, and forces it to disk as dictated by <code>fsyncPolicy</code>.
+     *
+     * @param file        File to write the Tasks to
+     * @param allTasks    Tasks to be written, in order
+     * @param fsyncPolicy FsyncPolicy deciding whether to force the data to disk, as for any snapshot
+     * @throws IOException thrown when the file could not be written.
+     */
+    public static void write(File file, Collection<Task> allTasks, FsyncPolicy fsyncPolicy) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(file);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(allTasks.size());
+            for (Task t : allTasks) {
+                writeTask(out, t);
+            }
+            out.flush();
+            if (fsyncPolicy.shouldForceSnapshot()) {
+                fos.getChannel().force(false);
+            }
+        }
+    }
+
+    /**
+     * Reads every Task stored in <code>file</code>.
+     *
+     * @param file File previously written by <code>write</code>
+     * @return Tasks in the file, in order
+     * @throws DukeException thrown when the file could not be read or is not a binary task file.
+     */
+    public static ArrayList<Task> read(File file) throws DukeException {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            short version = readVersion(buf);
+            int count = readHeader(buf);
+            ArrayList<Task> allStoredTasks = new ArrayList<Task>(count);
+            for (int i = 0; i < count; i++) {
+                allStoredTasks.add(readTask(buf, version));
+            }
+            return allStoredTasks;
+        } catch (IOException e) {
+            throw new DukeException("Could not read " + file.getName() + "!");
+        } catch (BufferUnderflowException e) {
+            throw new DukeException(file.getName() + " is truncated!");
+        }
+    }
+
+    /**
+     * Converts a snapshot in the legacy pipe-delimited format (e.g. data/savedTasks.txt)
+     * into the binary format in one go.
+     *
+     * @param legacyFile File in the pipe-delimited format
+     * @param binaryFile File to write the binary format to
+     * @return number of Tasks converted
+     * @throws DukeException thrown when either file could not be read or written.
+     */
+    public static int convert(File legacyFile, File binaryFile) throws DukeException {
+        //Numbers the Tasks of legacy files that were written without IDs
+        TaskList allStoredTasks = new TaskList(Storage.readTextSnapshot(legacyFile));
+        try {
+            write(binaryFile, allStoredTasks.asCollection(), FsyncPolicy.always());
+        } catch (IOException e) {
+            throw new DukeException("Could not write " + binaryFile.getName() + "!");
+        }
+        return allStoredTasks.size();
+    }
+
+    /**
+     * One-shot converter from the legacy format, e.g.
+     * <code>java duke.utils.BinaryTaskFormat data/savedTasks.txt data/savedTasks.bin</code>.
+     *
+     * @param args path of the legacy file, followed by the path of the binary file
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryTaskFormat <legacy file> <binary file>");
+            System.exit(1);
+        }
+        try {
+            int count = convert(new File(args[0]), new File(args[1]));
+            System.out.println("Converted " + count + " tasks into " + args[1]);
+        } catch (DukeException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns the version of the header at the current position of <code>buf</code>
+     * without moving past it.
+     *
+     * @param buf buffer positioned at the start of a binary task file
+     * @return version of the file, which is only meaningful once the header is validated
+     */
+    static short readVersion(ByteBuffer buf) {
+        return buf.remaining() < HEADER_SIZE ? 0 : buf.getShort(buf.position() + 4);
+    }
+
+    /**
+     * Validates the header at the current position of <code>buf</code> and moves past it.
+     *
+     * @param buf buffer positioned at the start of a binary task file
+     * @return number of records that follow the header, which is checked to fit into the rest of the file
+     * @throws DukeException thrown when the header is invalid.
+     */
+    static int readHeader(ByteBuffer buf) throws DukeException {
+        if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC) {
+            throw new DukeException("Not a binary task file!");
+        }
+        short version = buf.getShort();
+        if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+            throw new DukeException("Unsupported binary task file version: " + version);
+        }
+        int count = buf.getInt();
+        int minRecordSize = version == VERSION_WITHOUT_IDS ? MIN_RECORD_SIZE : MIN_RECORD_SIZE + 8;
+        //Checked before anything is sized by it, as a corrupt count could otherwise exhaust the heap
+        if (count < 0 || count > buf.remaining() / minRecordSize) {
+            throw new DukeException("Saved task count " + count + " does not fit into the file!");
+        }
+        return count;
+    }
+
+    /**
+     * Decodes the record at the current position of <code>buf</code> and moves past it.
+     *
+     * @param buf     buffer positioned at the start of a record
+     * @param version version of the file the record belongs to
+     * @return Task stored in the record
+     * @throws DukeException thrown when the record has an unknown type.
+     */
+    static Task readTask(ByteBuffer buf, short version) throws DukeException {
+        byte tag = buf.get();
+        long id = version == VERSION_WITHOUT_IDS ? 0 : buf.getLong();
+        Task t;
+        switch (tag & TYPE_MASK) {
+        case TODO_TAG:
+            t = new ToDo(readDescription(buf));
+            break;
+        case DEADLINE_TAG:
+            DukeDate deadline = new DukeDate(buf.getLong());
+            t = new Deadline(readDescription(buf), deadline);
+            break;
+        case EVENT_TAG:
+            DukeDate startTime = new DukeDate(buf.getLong());
+            DukeDate endTime = new DukeDate(buf.getLong());
+            t = new Event(readDescription(buf), startTime, endTime);
+            break;
+        default:
+            throw new DukeException("Invalid record type encountered while reading saved task: " + tag);
+        }
+        if ((tag & DONE_FLAG) != 0) {
+            t.markAsDone();
+        }
+        t.setId(id);
+        return t;
+    }
+
+    private static void writeTask(DataOutputStream out, Task t) throws IOException {
+        byte doneFlag = t.getDoneStatus() ? DONE_FLAG : 0;
+        if (t instanceof Deadline) {
+            out.writeByte(DEADLINE_TAG | doneFlag);
+            out.writeLong(t.getId());
+            out.writeLong(((Deadline) t).getDeadline().getEpochMinute());
+        } else if (t instanceof Event) {
+            out.writeByte(EVENT_TAG | doneFlag);
+            out.writeLong(t.getId());
+            out.writeLong(((Event) t).getStartTime().getEpochMinute());
+            out.writeLong(((Event) t).getEndTime().getEpochMinute());
+        } else {
+            out.writeByte(TODO_TAG | doneFlag);
+            out.writeLong(t.getId());
+        }
+        byte[] description = t.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(description.length);
+        out.write(description);
+    }
+
+    private static String readDescription(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0 || length > buf.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String description;
+        if (buf.hasArray()) {
+            description = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buf.duplicate().get(bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buf.position(buf.position() + length);
+        return description;
+    }
+}
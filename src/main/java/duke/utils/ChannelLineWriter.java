@@ -0,0 +1,142 @@
+package duke.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes lines of text to a FileChannel through a single reusable buffer, encoding
+ * them as UTF-8 straight into the buffer instead of issuing one small write per line.
+ */
+public class ChannelLineWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private CharsetEncoder encoder;
+
+    /**
+     * Constructor.
+     *
+     * @param file   File to write to
+     * @param append true to append to the existing contents of <code>file</code>,
+     *               false to replace them
+     * @throws IOException thrown when <code>file</code> could not be opened.
+     */
+    public ChannelLineWriter(File file, boolean append) throws IOException {
+        OpenOption[] options = append
+                ? new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND}
+                : new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                    StandardOpenOption.TRUNCATE_EXISTING};
+        this.channel = FileChannel.open(file.toPath(), options);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Buffers a line of text, followed by a line separator.
+     *
+     * @param line text to be written (without line separator)
+     * @throws IOException thrown when the buffer could not be flushed to the file.
+     */
+    public void writeLine(CharSequence line) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        this.encoder.reset();
+        while (true) {
+            CoderResult result = this.encoder.encode(chars, this.buffer, true);
+            if (!result.isOverflow()) {
+                break;
+            }
+            flushBuffer();
+        }
+        if (!this.buffer.hasRemaining()) {
+            flushBuffer();
+        }
+        this.buffer.put((byte) '\n');
+    }
+
+    /**
+     * Buffers a line of text prefixed by a number and the " | " field separator, as in
+     * <code>42 | T | 0 | read book</code>, without building the combined String.
+     *
+     * @param number non-negative number written in front of the line
+     * @param line   text to be written after the separator (without line separator)
+     * @throws IOException thrown when the buffer could not be flushed to the file.
+     */
+    public void writeNumberedLine(long number, CharSequence line) throws IOException {
+        assert number >= 0 : "Number cannot be negative";
+        //Long.MAX_VALUE has 19 digits, followed by 3 separator bytes
+        if (this.buffer.remaining() < 22) {
+            flushBuffer();
+        }
+        int start = this.buffer.position();
+        long rest = number;
+        do {
+            this.buffer.put((byte) ('0' + rest % 10));
+            rest /= 10;
+        } while (rest != 0);
+        for (int i = start, j = this.buffer.position() - 1; i < j; i++, j--) {
+            byte digit = this.buffer.get(i);
+            this.buffer.put(i, this.buffer.get(j));
+            this.buffer.put(j, digit);
+        }
+        this.buffer.put((byte) ' ').put((byte) '|').put((byte) ' ');
+        writeLine(line);
+    }
+
+    /**
+     * Writes out all buffered lines and, if <code>fsyncPolicy</code> asks for it,
+     * forces them to disk.
+     *
+     * @param fsyncPolicy FsyncPolicy deciding whether to force the data to disk
+     * @return true if the data was forced to disk
+     * @throws IOException thrown when the data could not be written.
+     */
+    public boolean flush(FsyncPolicy fsyncPolicy) throws IOException {
+        boolean isForced = fsyncPolicy.shouldForce();
+        flush(isForced);
+        return isForced;
+    }
+
+    /**
+     * Writes out all buffered lines, forcing them to disk if asked to.
+     *
+     * @param isForced true to force the data to disk
+     * @throws IOException thrown when the data could not be written.
+     */
+    public void flush(boolean isForced) throws IOException {
+        flushBuffer();
+        if (isForced) {
+            this.channel.force(false);
+        }
+    }
+
+    /** Writes out all buffered lines and closes the underlying FileChannel. */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -0,0 +1,253 @@
+package duke.utils;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Folds the Journal into a fresh snapshot on a background thread once the journal
+ * grows past a size or record-count threshold, so that start-up replay stays short.
+ *
+ * <p>The foreground only renames the current journal out of the way (which costs the
+ * same regardless of how many Tasks there are), after which new records go to a fresh
+ * journal. The background thread then rebuilds the snapshot from the old snapshot plus
+ * the renamed journal, without ever touching the TaskList used by the Commands.
+ */
+public class Compactor {
+    private static final long DEFAULT_MAX_JOURNAL_BYTES = 1024 * 1024;
+    private static final int DEFAULT_MAX_JOURNAL_RECORDS = 10000;
+
+    private Storage storage;
+    private File snapshotFile;
+    private File nextSnapshotFile;
+    private File compactingFile;
+    private FsyncPolicy fsyncPolicy;
+    private ExecutorService executor;
+    private Future<?> pendingCompaction;
+
+    private long maxJournalBytes = DEFAULT_MAX_JOURNAL_BYTES;
+    private int maxJournalRecords = DEFAULT_MAX_JOURNAL_RECORDS;
+
+    private volatile int compactionCount;
+    private volatile long lastDurationMillis;
+    private volatile long lastBytesReclaimed;
+    private volatile String lastError;
+
+    /**
+     * Constructor.
+     *
+     * @param storage      Storage whose snapshot format is used to read and write snapshots
+     * @param snapshotFile File holding the snapshot that the journal is folded into
+     * @param fsyncPolicy  FsyncPolicy deciding when the new snapshot is forced to disk
+     */
+    public Compactor(Storage storage, File snapshotFile, FsyncPolicy fsyncPolicy) {
+        this.storage = storage;
+        this.snapshotFile = snapshotFile;
+        this.fsyncPolicy = fsyncPolicy;
+        this.nextSnapshotFile = new File(snapshotFile.getPath() + ".next");
+        this.compactingFile = new File(snapshotFile.getPath() + ".journal.compacting");
+    }
+
+    /**
+     * Sets the thresholds beyond which the journal is compacted.
+     *
+     * @param maxJournalBytes   journal size (in bytes) that triggers a compaction
+     * @param maxJournalRecords number of journal records that triggers a compaction
+     */
+    public void setThresholds(long maxJournalBytes, int maxJournalRecords) {
+        this.maxJournalBytes = maxJournalBytes;
+        this.maxJournalRecords = maxJournalRecords;
+    }
+
+    /**
+     * Starts a background compaction if <code>journal</code> has grown past either
+     * threshold and no compaction is already in progress.
+     *
+     * @param journal Journal that Storage is appending to
+     * @throws DukeException thrown when the journal could not be moved aside.
+     */
+    public synchronized void maybeCompact(Journal journal) throws DukeException {
+        if (journal.getByteSize() < this.maxJournalBytes && journal.getRecordCount() < this.maxJournalRecords) {
+            return;
+        }
+        if (isCompacting()) {
+            return;
+        }
+        if (!journal.rotateTo(this.compactingFile)) {
+            return;
+        }
+        if (this.executor == null) {
+            //Started on the first compaction only, which keeps it off the startup path
+            this.executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "duke-compactor");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        this.pendingCompaction = this.executor.submit(this::compact);
+    }
+
+    /**
+     * Replaces the snapshot with <code>allTasks</code> on the calling thread, discarding
+     * every journal record written so far. Any background compaction is waited for first,
+     * so that it cannot later overwrite the newer snapshot.
+     *
+     * @param journal  Journal that Storage is appending to
+     * @param allTasks Tasks reflecting the snapshot plus every journal record
+     * @throws DukeException thrown when error encountered saving to file.
+     */
+    public synchronized void compactNow(Journal journal, Collection<Task> allTasks) throws DukeException {
+        awaitIdle();
+        long startTime = System.currentTimeMillis();
+        //Records are always moved aside first, so that deleting them is a single commit point
+        journal.rotateTo(this.compactingFile);
+        long bytesBefore = this.snapshotFile.length() + this.compactingFile.length();
+        this.storage.writeSnapshot(this.nextSnapshotFile, allTasks);
+        try {
+            commit();
+        } catch (IOException e) {
+            throw new DukeException("Could not save to file!");
+        }
+        recordSuccess(startTime, bytesBefore);
+    }
+
+    /** Blocks until any in-progress compaction has finished. */
+    public void awaitIdle() {
+        Future<?> pending;
+        synchronized (this) {
+            pending = this.pendingCompaction;
+        }
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            this.lastError = e.getCause().getMessage();
+        }
+    }
+
+    /**
+     * Checks whether a compaction is currently running in the background.
+     *
+     * @return true if a compaction has been started and has not yet finished
+     */
+    public synchronized boolean isCompacting() {
+        return this.pendingCompaction != null && !this.pendingCompaction.isDone();
+    }
+
+    /**
+     * Returns the journal segment that is being folded into the snapshot. Storage replays
+     * it between the snapshot and the live journal if a compaction did not complete.
+     *
+     * @return File holding the journal records moved aside for compaction
+     */
+    public File getCompactingFile() {
+        return this.compactingFile;
+    }
+
+    /**
+     * Finishes or rolls back a compaction that was interrupted by a crash. The new snapshot
+     * only takes effect once the journal segment it was built from has been deleted, so it
+     * is promoted if that segment is gone and discarded otherwise.
+     *
+     * @throws DukeException thrown when the interrupted compaction could not be resolved.
+     */
+    public void recover() throws DukeException {
+        try {
+            if (!this.nextSnapshotFile.exists()) {
+                return;
+            }
+            if (this.compactingFile.exists()) {
+                Files.delete(this.nextSnapshotFile.toPath());
+            } else {
+                Storage.replaceAtomically(this.nextSnapshotFile, this.snapshotFile, this.fsyncPolicy);
+            }
+        } catch (IOException e) {
+            throw new DukeException("Could not recover interrupted compaction!");
+        }
+    }
+
+    /**
+     * Returns the number of compactions completed so far.
+     *
+     * @return number of successful compactions
+     */
+    public int getCompactionCount() {
+        return this.compactionCount;
+    }
+
+    /**
+     * Returns how long the last compaction took.
+     *
+     * @return duration of the last successful compaction, in milliseconds
+     */
+    public long getLastDurationMillis() {
+        return this.lastDurationMillis;
+    }
+
+    /**
+     * Returns the disk space saved by the last compaction.
+     *
+     * @return bytes taken by the old snapshot and journal segment, less those of the new snapshot
+     */
+    public long getLastBytesReclaimed() {
+        return this.lastBytesReclaimed;
+    }
+
+    /**
+     * Summarises the outcome of the last compaction.
+     *
+     * @return String describing the last compaction, or why it failed
+     */
+    public String getLastReport() {
+        if (this.lastError != null) {
+            return "Last compaction failed: " + this.lastError;
+        }
+        if (this.compactionCount == 0) {
+            return "No compaction has run yet.";
+        }
+        return "Compacted journal in " + this.lastDurationMillis + " ms, reclaiming "
+                + this.lastBytesReclaimed + " bytes.";
+    }
+
+    private void commit() throws IOException {
+        //Deleting the compacted segment is what commits the new snapshot (see recover)
+        Files.deleteIfExists(this.compactingFile.toPath());
+        Storage.replaceAtomically(this.nextSnapshotFile, this.snapshotFile, this.fsyncPolicy);
+    }
+
+    private void compact() {
+        long startTime = System.currentTimeMillis();
+        try {
+            long bytesBefore = this.snapshotFile.length() + this.compactingFile.length();
+
+            TaskList allStoredTasks = this.storage.readSnapshot(this.snapshotFile);
+            new Journal(this.compactingFile, this.fsyncPolicy).replay(allStoredTasks);
+            this.storage.writeSnapshot(this.nextSnapshotFile, allStoredTasks.asCollection());
+            commit();
+            recordSuccess(startTime, bytesBefore);
+        } catch (DukeException e) {
+            this.lastError = e.getMessage().trim();
+        } catch (IOException e) {
+            this.lastError = "Could not replace snapshot!";
+        }
+    }
+
+    private void recordSuccess(long startTime, long bytesBefore) {
+        this.lastBytesReclaimed = bytesBefore - this.snapshotFile.length();
+        this.lastDurationMillis = System.currentTimeMillis() - startTime;
+        this.lastError = null;
+        this.compactionCount++;
+    }
+}
@@ -0,0 +1,154 @@
+package duke.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Skip list of Task IDs ordered by the epoch minute at which the Tasks are due, with ties
+ * broken by ID. Keys are kept as primitive longs, so entries are compared without parsing
+ * or creating any DukeDate. Adding or removing an entry and locating the start of a range
+ * each take O(log n) expected time, after which the <i>k</i> entries in the range are read
+ * off the bottom level in O(<i>k</i>).
+ */
+public class DeadlineIndex {
+    private static final int MAX_LEVEL = 32;
+    private static final int MIN_MATCHES = 16;
+
+    private final Node head = new Node(Long.MIN_VALUE, 0, MAX_LEVEL);
+    private final Node[] update = new Node[MAX_LEVEL];
+    private final Random random = new Random(0x5EED);
+    private int level = 1;
+    private int size;
+    private long[] matches = new long[MIN_MATCHES];
+
+    /**
+     * Adds the Task with ID <code>taskId</code>, due at <code>epochMinute</code>.
+     *
+     * @param epochMinute time at which the Task is due
+     * @param taskId      ID of the Task
+     */
+    public void add(long epochMinute, long taskId) {
+        Node x = findPredecessors(epochMinute, taskId);
+        if (x.next[0] != null && x.next[0].epochMinute == epochMinute && x.next[0].taskId == taskId) {
+            return;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > this.level) {
+            for (int i = this.level; i < nodeLevel; i++) {
+                this.update[i] = this.head;
+            }
+            this.level = nodeLevel;
+        }
+        Node node = new Node(epochMinute, taskId, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = this.update[i].next[i];
+            this.update[i].next[i] = node;
+        }
+        this.size++;
+    }
+
+    /**
+     * Removes the Task with ID <code>taskId</code>, due at <code>epochMinute</code>.
+     *
+     * @param epochMinute time at which the Task is due
+     * @param taskId      ID of the Task
+     * @return true if the Task was in the index
+     */
+    public boolean remove(long epochMinute, long taskId) {
+        Node x = findPredecessors(epochMinute, taskId).next[0];
+        if (x == null || x.epochMinute != epochMinute || x.taskId != taskId) {
+            return false;
+        }
+        for (int i = 0; i < this.level && this.update[i].next[i] == x; i++) {
+            this.update[i].next[i] = x.next[i];
+        }
+        while (this.level > 1 && this.head.next[this.level - 1] == null) {
+            this.level--;
+        }
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of Tasks in the index.
+     *
+     * @return number of Tasks
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Finds the Tasks due from <code>fromMinute</code> up to and including <code>toMinute</code>.
+     * The matching IDs are written into an internal buffer that is reused by the next search,
+     * so they must be read through <code>getMatch</code> before searching again.
+     *
+     * @param fromMinute earliest time, inclusive
+     * @param toMinute   latest time, inclusive
+     * @return number of matching Tasks
+     */
+    public int search(long fromMinute, long toMinute) {
+        Node x = findPredecessors(fromMinute, Long.MIN_VALUE).next[0];
+        int count = 0;
+        while (x != null && x.epochMinute <= toMinute) {
+            if (count == this.matches.length) {
+                this.matches = Arrays.copyOf(this.matches, count * 2);
+            }
+            this.matches[count] = x.taskId;
+            count++;
+            x = x.next[0];
+        }
+        return count;
+    }
+
+    /**
+     * Returns an ID found by the last search.
+     *
+     * @param i index of the match, smaller than the count returned by <code>search</code>
+     * @return ID of the <code>i</code>-th matching Task, in order of the time it is due
+     */
+    public long getMatch(int i) {
+        return this.matches[i];
+    }
+
+    /**
+     * Walks down from the top level to the last node before (<code>epochMinute</code>,
+     * <code>taskId</code>), recording the last node visited on each level in <code>update</code>.
+     */
+    private Node findPredecessors(long epochMinute, long taskId) {
+        Node x = this.head;
+        for (int i = this.level - 1; i >= 0; i--) {
+            while (x.next[i] != null && isBefore(x.next[i], epochMinute, taskId)) {
+                x = x.next[i];
+            }
+            this.update[i] = x;
+        }
+        return x;
+    }
+
+    private static boolean isBefore(Node node, long epochMinute, long taskId) {
+        return node.epochMinute < epochMinute || (node.epochMinute == epochMinute && node.taskId < taskId);
+    }
+
+    private int randomLevel() {
+        //Each level holds a quarter of the nodes of the level below
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && (this.random.nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    /** Entry of the skip list, linked to its successor on every level it appears on. */
+    private static class Node {
+        private final long epochMinute;
+        private final long taskId;
+        private final Node[] next;
+
+        Node(long epochMinute, long taskId, int level) {
+            this.epochMinute = epochMinute;
+            this.taskId = taskId;
+            this.next = new Node[level];
+        }
+    }
+}
@@ -1,35 +1,201 @@
 package duke.utils;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.TimeZone;
 
-/** Convenience class to convert between String and Date object. */
+/**
+ * Convenience class to convert between String and a date and time. Dates are interpreted
+ * as wall-clock times (there is no time zone involved), so that the epoch minute of a
+ * DukeDate does not depend on the time zone of the machine it was saved on.
+ *
+ * <p>A DukeDate is immutable and only holds the epoch minute it stands for, along with its
+ * String representation once that has been asked for. Strings in the format
+ * <code>dd/MM/yyyy HH:mm</code> are parsed and produced by hand rather than through a
+ * SimpleDateFormat, so no formatter has to be created or kept per DukeDate.
+ */
 public class DukeDate {
-    private final String dateFormatString = "dd/MM/yyyy HH:mm";
-    private SimpleDateFormat df;
-    private Date time;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+    private static final String FIELD_SEPARATORS = "// :";
+    //The Gregorian calendar repeats itself every 400 years
+    private static final long YEARS_PER_ERA = 400;
+    private static final long DAYS_PER_ERA = 146097;
+    private static final long DAYS_FROM_ERA_TO_EPOCH = 719468;
+
+    private final long epochMinute;
+    private String rendering;
 
     /**
      * Constructor.
      *
-     * @param dateStr String representing a certain date and time (format as specified
-     *                in DukeDate.dateFormatString)
+     * @param dateStr String representing a certain date and time (in the format dd/MM/yyyy HH:mm;
+     *                day, month, hour and minute may also be given with a single digit)
      * @throws ParseException Exception thrown when error encountered parsing dateStr
      */
     public DukeDate(String dateStr) throws ParseException {
         assert dateStr.length() != 0 : "dateStr String cannot be of length 0";
-        this.df = new SimpleDateFormat(this.dateFormatString);
-        this.time = this.df.parse(dateStr);
+        this.epochMinute = parseEpochMinute(dateStr, 0, dateStr.length());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param epochMinute number of minutes between 01/01/1970 00:00 and this date and time
+     */
+    public DukeDate(long epochMinute) {
+        this.epochMinute = epochMinute;
+    }
+
+    /**
+     * Returns the current wall-clock date and time in the time zone of this machine.
+     *
+     * @return DukeDate representing the current minute
+     */
+    public static DukeDate now() {
+        long millis = System.currentTimeMillis();
+        return new DukeDate(Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), 60 * 1000));
     }
 
     /**
-     * String representation of the date and time in the format specified in
-     * DukeDate.dateFormatString
+     * Returns this date and time as a single number, for compact storage and comparisons.
+     *
+     * @return number of minutes between 01/01/1970 00:00 and this date and time
+     */
+    public long getEpochMinute() {
+        return this.epochMinute;
+    }
+
+    /**
+     * String representation of the date and time in the format dd/MM/yyyy HH:mm. The String
+     * is created on the first call and reused afterwards.
      *
      * @return String representation of the date and time
      */
     public String toString() {
-        return this.df.format(this.time);
+        String s = this.rendering;
+        if (s == null) {
+            s = render(this.epochMinute);
+            this.rendering = s;
+        }
+        return s;
+    }
+
+    /**
+     * Parses the date and time in <code>text</code> from index <code>start</code> up to
+     * <code>end</code>, without copying them out first.
+     *
+     * @param text  characters holding a date and time in the format dd/MM/yyyy HH:mm
+     * @param start index of the first character of the date
+     * @param end   index after the last character of the time
+     * @return number of minutes between 01/01/1970 00:00 and the date and time
+     * @throws ParseException Exception thrown when the characters are not a valid date and time
+     */
+    public static long parseEpochMinute(CharSequence text, int start, int end) throws ParseException {
+        int pos = start;
+        long day = 0;
+        long month = 0;
+        long year = 0;
+        long hour = 0;
+        long minute = 0;
+        for (int i = 0; i <= FIELD_SEPARATORS.length(); i++) {
+            if (i > 0) {
+                if (pos >= end || text.charAt(pos) != FIELD_SEPARATORS.charAt(i - 1)) {
+                    throw unparseable(text, start, end, pos);
+                }
+                pos++;
+            }
+            int fieldStart = pos;
+            long value = 0;
+            //The year may have up to 9 digits, every other field up to 2
+            int maxDigits = i == 2 ? 9 : 2;
+            while (pos < end && pos - fieldStart < maxDigits && isDigit(text.charAt(pos))) {
+                value = value * 10 + (text.charAt(pos) - '0');
+                pos++;
+            }
+            if (pos == fieldStart) {
+                throw unparseable(text, start, end, pos);
+            }
+            switch (i) {
+            case 0:
+                day = value;
+                break;
+            case 1:
+                month = value;
+                break;
+            case 2:
+                year = value;
+                break;
+            case 3:
+                hour = value;
+                break;
+            default:
+                minute = value;
+                break;
+            }
+        }
+        if (pos != end) {
+            throw unparseable(text, start, end, pos);
+        }
+
+        if (hour > 23 || minute > 59) {
+            throw new ParseException("Invalid time: \"" + text.subSequence(start, end) + "\"", 0);
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new ParseException("Invalid date: \"" + text.subSequence(start, end) + "\"", 0);
+        }
+        return toEpochDay(year, month, day) * MINUTES_PER_DAY + hour * MINUTES_PER_HOUR + minute;
+    }
+
+    private static ParseException unparseable(CharSequence text, int start, int end, int pos) {
+        return new ParseException("Unparseable date: \"" + text.subSequence(start, end) + "\"", pos - start);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(long year, long month) {
+        if (month == 2) {
+            return Year.isLeap(year) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /** Counts the days from 01/01/1970 in the proleptic Gregorian calendar, as LocalDate does. */
+    private static long toEpochDay(long year, long month, long day) {
+        //Count years from March, so that the leap day is the last day of a year
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, YEARS_PER_ERA);
+        long yearOfEra = y - era * YEARS_PER_ERA;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_ERA_TO_EPOCH;
+    }
+
+    private static String render(long epochMinute) {
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+        int minuteOfDay = (int) Math.floorMod(epochMinute, MINUTES_PER_DAY);
+        StringBuilder sb = new StringBuilder(16);
+        appendTwoDigits(sb, date.getDayOfMonth());
+        sb.append('/');
+        appendTwoDigits(sb, date.getMonthValue());
+        sb.append('/');
+        int year = date.getYear();
+        for (int threshold = 1000; threshold > 1 && year >= 0 && year < threshold; threshold /= 10) {
+            sb.append('0');
+        }
+        sb.append(year);
+        sb.append(' ');
+        appendTwoDigits(sb, minuteOfDay / MINUTES_PER_HOUR);
+        sb.append(':');
+        appendTwoDigits(sb, minuteOfDay % MINUTES_PER_HOUR);
+        return sb.toString();
+    }
+
+    private static void appendTwoDigits(StringBuilder sb, int value) {
+        sb.append((char) ('0' + value / 10));
+        sb.append((char) ('0' + value % 10));
     }
 }
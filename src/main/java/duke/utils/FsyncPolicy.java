@@ -0,0 +1,135 @@
+package duke.utils;
+
+/**
+ * Decides when Storage forces written data out to the disk with <code>FileChannel.force</code>.
+ * Forcing guarantees that saved Tasks survive a power loss, at the cost of waiting for the disk,
+ * so the trade-off between durability and latency can be chosen per deployment:
+ * <ul>
+ *     <li><code>always</code> forces after every write,</li>
+ *     <li><code>&lt;N&gt;ms</code> forces at most once every N milliseconds, and Storage forces
+ *     the writes left over in the background every N milliseconds,</li>
+ *     <li><code>never</code> leaves flushing to the operating system.</li>
+ * </ul>
+ * Snapshots are forced before they replace the previous snapshot in every mode but
+ * <code>never</code>, as the journal records they capture are deleted afterwards.
+ */
+public class FsyncPolicy {
+    /** Name of the system property from which the default policy is read. */
+    public static final String PROPERTY_NAME = "duke.fsync";
+
+    /** The different modes in which data can be forced out to disk. */
+    public enum Mode {
+        ALWAYS, INTERVAL, NEVER
+    }
+
+    private final Mode mode;
+    private final long intervalMillis;
+    private long lastForceMillis;
+
+    private FsyncPolicy(Mode mode, long intervalMillis) {
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /** Returns a policy that forces data to disk after every write. */
+    public static FsyncPolicy always() {
+        return new FsyncPolicy(Mode.ALWAYS, 0);
+    }
+
+    /** Returns a policy that forces data to disk at most once every <code>intervalMillis</code>. */
+    public static FsyncPolicy every(long intervalMillis) {
+        return new FsyncPolicy(Mode.INTERVAL, intervalMillis);
+    }
+
+    /** Returns a policy that never forces data to disk. */
+    public static FsyncPolicy never() {
+        return new FsyncPolicy(Mode.NEVER, 0);
+    }
+
+    /**
+     * Parses a policy from its textual form ("always", "never" or e.g. "500ms").
+     *
+     * @param policyStr String describing the policy
+     * @return FsyncPolicy described by <code>policyStr</code>
+     * @throws IllegalArgumentException thrown when <code>policyStr</code> is not a valid policy.
+     */
+    public static FsyncPolicy parse(String policyStr) {
+        String s = policyStr.trim().toLowerCase();
+        switch (s) {
+        case "always":
+            return always();
+        case "never":
+            return never();
+        default:
+            if (s.endsWith("ms")) {
+                try {
+                    return every(Long.parseLong(s.substring(0, s.length() - 2).trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid fsync interval: " + policyStr);
+                }
+            }
+            throw new IllegalArgumentException("Invalid fsync policy: " + policyStr);
+        }
+    }
+
+    /**
+     * Returns the policy configured through the <code>duke.fsync</code> system property,
+     * defaulting to <code>always</code>.
+     *
+     * @return FsyncPolicy configured for this deployment
+     */
+    public static FsyncPolicy fromSystemProperty() {
+        return parse(System.getProperty(PROPERTY_NAME, "always"));
+    }
+
+    /**
+     * Getter method for the mode of this policy.
+     *
+     * @return Mode in which data is forced to disk
+     */
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * Getter method for the interval between forces in <code>INTERVAL</code> mode.
+     *
+     * @return minimum time between forces, in milliseconds
+     */
+    public long getIntervalMillis() {
+        return this.intervalMillis;
+    }
+
+    /**
+     * Decides whether a snapshot that is about to replace the previous one should be forced
+     * to disk. Unlike <code>shouldForce</code>, this does not depend on when data was last
+     * forced, and does not count as a force.
+     *
+     * @return true if the caller should call <code>FileChannel.force</code>
+     */
+    public boolean shouldForceSnapshot() {
+        return this.mode != Mode.NEVER;
+    }
+
+    /**
+     * Decides whether the data that has just been written should be forced to disk.
+     * Calling this method counts as a force if it returns true.
+     *
+     * @return true if the caller should call <code>FileChannel.force</code>
+     */
+    public synchronized boolean shouldForce() {
+        switch (this.mode) {
+        case ALWAYS:
+            return true;
+        case INTERVAL:
+            long now = System.currentTimeMillis();
+            if (now - this.lastForceMillis < this.intervalMillis) {
+                return false;
+            }
+            this.lastForceMillis = now;
+            return true;
+        default:
+            return false;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package duke.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Interval tree over the times of Events, used to find the Events taking place at a given
+ * time or overlapping a window. Intervals are closed, i.e. an Event is on from its start
+ * time up to and including its end time, and times are epoch minutes.
+ *
+ * <p>The tree is a treap ordered by start time, with ties broken by Task ID, whose nodes are
+ * augmented with the latest end time in their subtree. A query skips every subtree that ends
+ * before the window starts and every node that starts after the window ends, so it runs in
+ * O((1 + <i>k</i>) log n) expected time for <i>k</i> matches instead of looking at every
+ * Event. Updates take O(log n) expected time.
+ */
+public class IntervalTree {
+    private static final int MIN_MATCHES = 16;
+
+    private final Random random = new Random(0x5EED);
+    private Node root;
+    private int size;
+    private long[] matches = new long[MIN_MATCHES];
+    private int matchCount;
+
+    /**
+     * Adds the Event with ID <code>taskId</code>.
+     *
+     * @param startMinute start time of the Event
+     * @param endMinute   end time of the Event
+     * @param taskId      ID of the Event
+     */
+    public void add(long startMinute, long endMinute, long taskId) {
+        this.root = insert(this.root, new Node(startMinute, endMinute, taskId, this.random.nextInt()));
+        this.size++;
+    }
+
+    /**
+     * Removes the Event with ID <code>taskId</code>.
+     *
+     * @param startMinute start time the Event was added with
+     * @param taskId      ID of the Event
+     * @return true if the Event was in the tree
+     */
+    public boolean remove(long startMinute, long taskId) {
+        int sizeBefore = this.size;
+        this.root = delete(this.root, startMinute, taskId);
+        return this.size < sizeBefore;
+    }
+
+    /**
+     * Returns the number of Events in the tree.
+     *
+     * @return number of Events
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Finds the Events that are on at any time from <code>fromMinute</code> up to and
+     * including <code>toMinute</code>; passing the same time twice finds the Events on at
+     * that time. The matching IDs are written into an internal buffer that is reused by the
+     * next search, so they must be read through <code>getMatch</code> before searching again.
+     *
+     * @param fromMinute start of the window
+     * @param toMinute   end of the window
+     * @return number of matching Events
+     */
+    public int search(long fromMinute, long toMinute) {
+        this.matchCount = 0;
+        collect(this.root, fromMinute, toMinute);
+        return this.matchCount;
+    }
+
+    /**
+     * Returns an ID found by the last search.
+     *
+     * @param i index of the match, smaller than the count returned by <code>search</code>
+     * @return ID of the <code>i</code>-th matching Event, in order of start time
+     */
+    public long getMatch(int i) {
+        return this.matches[i];
+    }
+
+    private void collect(Node node, long fromMinute, long toMinute) {
+        if (node == null || node.maxEnd < fromMinute) {
+            return;
+        }
+        collect(node.left, fromMinute, toMinute);
+        if (node.start > toMinute) {
+            //Every node to the right starts even later
+            return;
+        }
+        if (node.end >= fromMinute) {
+            if (this.matchCount == this.matches.length) {
+                this.matches = Arrays.copyOf(this.matches, this.matchCount * 2);
+            }
+            this.matches[this.matchCount] = node.taskId;
+            this.matchCount++;
+        }
+        collect(node.right, fromMinute, toMinute);
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (isBefore(newNode.start, newNode.taskId, node)) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node delete(Node node, long startMinute, long taskId) {
+        if (node == null) {
+            return null;
+        }
+        if (node.start == startMinute && node.taskId == taskId) {
+            this.size--;
+            return merge(node.left, node.right);
+        }
+        if (isBefore(startMinute, taskId, node)) {
+            node.left = delete(node.left, startMinute, taskId);
+        } else {
+            node.right = delete(node.right, startMinute, taskId);
+        }
+        node.update();
+        return node;
+    }
+
+    /** Joins two treaps, every node of <code>left</code> ordered before every node of <code>right</code>. */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static boolean isBefore(long startMinute, long taskId, Node node) {
+        return startMinute < node.start || (startMinute == node.start && taskId < node.taskId);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    /** Node of the treap, holding one Event and the latest end time in its subtree. */
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final long taskId;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long start, long end, long taskId, int priority) {
+            this.start = start;
+            this.end = end;
+            this.taskId = taskId;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            long max = this.end;
+            if (this.left != null) {
+                max = Math.max(max, this.left.maxEnd);
+            }
+            if (this.right != null) {
+                max = Math.max(max, this.right.maxEnd);
+            }
+            this.maxEnd = max;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package duke.utils;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only log of the mutations applied to a TaskList since the last snapshot
+ * was written by Storage. Every record is a single line, so that a mutation costs
+ * one small append regardless of the number of Tasks in the list:
+ * <pre>
+ *     add | 4 | T | 0 | project work
+ *     done | 3
+ *     delete | 1
+ * </pre>
+ * Tasks are referred to by their ID, which does not change as other Tasks are deleted.
+ */
+public class Journal {
+    private static final String ADD_RECORD = "add";
+    private static final String DONE_RECORD = "done";
+    private static final String DELETE_RECORD = "delete";
+
+    private File file;
+    private FsyncPolicy fsyncPolicy;
+    private int recordCount;
+    private long replayedLength;
+    private boolean hasUnforcedRecords;
+
+    /**
+     * Constructor.
+     *
+     * @param file        File in which the journal records are kept
+     * @param fsyncPolicy FsyncPolicy deciding when appended records are forced to disk
+     */
+    public Journal(File file, FsyncPolicy fsyncPolicy) {
+        this.file = file;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Checks whether any journal records exist on disk.
+     *
+     * @return true if the journal file exists
+     */
+    public boolean exists() {
+        return this.file.exists();
+    }
+
+    /**
+     * Returns the size of the journal on disk.
+     *
+     * @return number of bytes in the journal file, or 0 if it does not exist
+     */
+    public long getByteSize() {
+        return this.file.length();
+    }
+
+    /**
+     * Returns the number of records appended or replayed through this Journal since
+     * it was last rotated.
+     *
+     * @return number of journal records
+     */
+    public int getRecordCount() {
+        return this.recordCount;
+    }
+
+    /** Returns the record describing the addition of Task <code>t</code>. */
+    public static String addRecord(Task t) {
+        return ADD_RECORD + " | " + Storage.formatSavedTask(t);
+    }
+
+    /** Returns the record describing the completion of the Task with ID <code>taskId</code>. */
+    public static String doneRecord(long taskId) {
+        return DONE_RECORD + " | " + taskId;
+    }
+
+    /** Returns the record describing the deletion of the Task with ID <code>taskId</code>. */
+    public static String deleteRecord(long taskId) {
+        return DELETE_RECORD + " | " + taskId;
+    }
+
+    /**
+     * Appends a batch of records with a single write, forcing them to disk at most once.
+     *
+     * @param records records created by <code>addRecord</code>, <code>doneRecord</code>
+     *                or <code>deleteRecord</code>, in the order they happened
+     * @throws DukeException thrown when the records could not be written.
+     */
+    public synchronized void appendAll(List<String> records) throws DukeException {
+        long lengthBefore = this.file.length();
+        try {
+            this.file.getAbsoluteFile().getParentFile().mkdirs();
+            try (ChannelLineWriter writer = new ChannelLineWriter(this.file, true)) {
+                for (String record : records) {
+                    writer.writeLine(record);
+                }
+                //Forcing the file forces every record before these as well
+                this.hasUnforcedRecords = !writer.flush(this.fsyncPolicy);
+            }
+            this.recordCount += records.size();
+        } catch (IOException e) {
+            truncateTo(lengthBefore);
+            throw new DukeException("Could not write to journal!");
+        }
+    }
+
+    /** Cuts off what a failed append managed to write, so that the records can be appended again. */
+    private void truncateTo(long length) {
+        try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        } catch (IOException e) {
+            //A cut-off last record is skipped by replay regardless
+        }
+    }
+
+    /**
+     * Forces the records that were appended without being forced to disk, if any, as the
+     * FsyncPolicy allows appends to skip the force for a while.
+     *
+     * @throws DukeException thrown when the journal could not be forced to disk.
+     */
+    public synchronized void forceUnforcedRecords() throws DukeException {
+        if (!this.hasUnforcedRecords || !this.file.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(false);
+            this.hasUnforcedRecords = false;
+        } catch (IOException e) {
+            throw new DukeException("Could not force journal to disk!");
+        }
+    }
+
+    /**
+     * Moves every record written so far into <code>target</code>, so that subsequent
+     * records start a fresh journal. Used by the Compactor to fold the moved records
+     * into a snapshot without holding up new appends. If <code>target</code> still holds
+     * records from an earlier rotation, the current records are appended after them.
+     *
+     * @param target File which the current journal records are moved to
+     * @return false if there were no journal records to move
+     * @throws DukeException thrown when the journal file could not be moved.
+     */
+    public synchronized boolean rotateTo(File target) throws DukeException {
+        if (!this.file.exists()) {
+            return false;
+        }
+        try {
+            if (target.exists()) {
+                Files.write(target.toPath(), Files.readAllBytes(this.file.toPath()), StandardOpenOption.APPEND);
+                Files.delete(this.file.toPath());
+            } else {
+                Files.move(this.file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.recordCount = 0;
+            //The moved records are captured by the snapshot that the Compactor forces to disk
+            this.hasUnforcedRecords = false;
+            return true;
+        } catch (IOException e) {
+            throw new DukeException("Could not rotate journal!");
+        }
+    }
+
+    /**
+     * Re-applies every journal record, in order, on top of the Tasks loaded from the
+     * last snapshot. Replay stops at the first unreadable record, or at a last record
+     * without its line separator, which can only be the result of a write interrupted
+     * halfway through. The length of the records replayed is kept for
+     * <code>truncateToReplayed</code>.
+     *
+     * @param allStoredTasks Tasks loaded from the last snapshot; modified in place
+     * @throws DukeException thrown when the journal file could not be read.
+     */
+    public void replay(TaskList allStoredTasks) throws DukeException {
+        this.replayedLength = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(this.file))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long length = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                length++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                //Unlike a CharsetDecoder, this replaces a character cut off by an interrupted write
+                String record = new String(line.toByteArray(), StandardCharsets.UTF_8);
+                line.reset();
+                if (record.endsWith("\r")) {
+                    record = record.substring(0, record.length() - 1);
+                }
+                if (!replayRecord(record, allStoredTasks)) {
+                    break;
+                }
+                this.recordCount++;
+                this.replayedLength = length;
+            }
+        } catch (IOException e) {
+            throw new DukeException("Could not read journal!");
+        }
+    }
+
+    /**
+     * Cuts off whatever follows the records read by the last <code>replay</code>, such as
+     * a record torn by a crash, so that records appended afterwards are not written after
+     * it, where replay would never reach them.
+     *
+     * @return true if anything was cut off
+     * @throws DukeException thrown when the journal file could not be truncated.
+     */
+    public synchronized boolean truncateToReplayed() throws DukeException {
+        if (this.file.length() <= this.replayedLength) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(this.replayedLength);
+            channel.force(false);
+            return true;
+        } catch (IOException e) {
+            throw new DukeException("Could not remove the unreadable end of the journal!");
+        }
+    }
+
+    private boolean replayRecord(String record, TaskList allStoredTasks) {
+        int separator = record.indexOf('|');
+        if (separator < 0) {
+            return false;
+        }
+        String type = record.substring(0, separator).trim();
+        String payload = record.substring(separator + 1);
+        try {
+            switch (type) {
+            case ADD_RECORD:
+                allStoredTasks.add(Storage.generateSavedTask(payload));
+                break;
+            case DONE_RECORD:
+                allStoredTasks.completeTask(Long.parseLong(payload.trim()));
+                break;
+            case DELETE_RECORD:
+                allStoredTasks.deleteTask(Long.parseLong(payload.trim()));
+                break;
+            default:
+                return false;
+            }
+            return true;
+        } catch (DukeException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package duke.utils;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from positive long keys to int values, stored in two primitive arrays with
+ * open addressing and linear probing, so that neither keys nor values are boxed. The key
+ * 0 is reserved to mark empty entries.
+ */
+public class LongIntHashMap {
+    private static final long EMPTY_KEY = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    /** Constructor. */
+    public LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize number of entries the map should hold without having to grow
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Associates <code>value</code> with <code>key</code>, replacing any previous value.
+     *
+     * @param key   positive key
+     * @param value value to be associated with <code>key</code>
+     */
+    public void put(long key, int value) {
+        assert key != EMPTY_KEY : "Key cannot be 0";
+        int i = indexOf(key);
+        if (this.keys[i] == EMPTY_KEY) {
+            this.keys[i] = key;
+            this.size++;
+        }
+        this.values[i] = value;
+        if (this.size * 4 > this.keys.length * 3) {
+            rehash(this.keys.length * 2);
+        }
+    }
+
+    /**
+     * Returns the value associated with <code>key</code>.
+     *
+     * @param key positive key
+     * @return value associated with <code>key</code>, or -1 if there is none
+     */
+    public int get(long key) {
+        int i = indexOf(key);
+        return this.keys[i] == EMPTY_KEY ? -1 : this.values[i];
+    }
+
+    /**
+     * Removes the value associated with <code>key</code>. Entries that follow it in the
+     * same probe sequence are shifted back, so no deleted markers are left behind.
+     *
+     * @param key positive key
+     * @return value that was associated with <code>key</code>, or -1 if there was none
+     */
+    public int remove(long key) {
+        int i = indexOf(key);
+        if (this.keys[i] == EMPTY_KEY) {
+            return -1;
+        }
+        int removedValue = this.values[i];
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & this.mask;
+            if (this.keys[j] == EMPTY_KEY) {
+                break;
+            }
+            int home = hash(this.keys[j]) & this.mask;
+            //Move the entry at j into the gap unless its home lies cyclically within (gap, j]
+            boolean isHomeBetween = gap <= j ? (gap < home && home <= j) : (gap < home || home <= j);
+            if (!isHomeBetween) {
+                this.keys[gap] = this.keys[j];
+                this.values[gap] = this.values[j];
+                gap = j;
+            }
+        }
+        this.keys[gap] = EMPTY_KEY;
+        this.size--;
+        return removedValue;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of keys with an associated value
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /** Removes every entry from the map. */
+    public void clear() {
+        Arrays.fill(this.keys, EMPTY_KEY);
+        this.size = 0;
+    }
+
+    private int indexOf(long key) {
+        int i = hash(key) & this.mask;
+        while (this.keys[i] != EMPTY_KEY && this.keys[i] != key) {
+            i = (i + 1) & this.mask;
+        }
+        return i;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int j = indexOf(oldKeys[i]);
+                this.keys[j] = oldKeys[i];
+                this.values[j] = oldValues[i];
+                this.size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < expectedSize * 4) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,150 @@
+package duke.utils;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only view of a file in the BinaryTaskFormat that is memory-mapped instead of read
+ * into the heap. Opening the archive only records where each record starts; a Task object
+ * is created when its record is first asked for and kept from then on, so a TaskList
+ * backed by an archive only holds the Tasks that have actually been used.
+ *
+ * <p>The file is mapped as a single buffer and must therefore be smaller than 2 GB.
+ */
+public class MappedTaskArchive {
+    private ByteBuffer buffer;
+    private short version;
+    private int[] recordOffsets;
+    private final AtomicReferenceArray<Task> residentTasks;
+
+    private MappedTaskArchive(ByteBuffer buffer, short version, int[] recordOffsets) {
+        this.buffer = buffer;
+        this.version = version;
+        this.recordOffsets = recordOffsets;
+        this.residentTasks = new AtomicReferenceArray<Task>(recordOffsets.length);
+    }
+
+    /**
+     * Maps <code>file</code> into memory and locates every record in it.
+     *
+     * @param file File in the BinaryTaskFormat
+     * @return MappedTaskArchive over the contents of <code>file</code>
+     * @throws DukeException thrown when the file could not be mapped or is malformed.
+     */
+    public static MappedTaskArchive open(File file) throws DukeException {
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (fc.size() > Integer.MAX_VALUE) {
+                throw new DukeException(file.getName() + " is too large to be mapped!");
+            }
+            MappedByteBuffer buffer = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+            return new MappedTaskArchive(buffer, BinaryTaskFormat.readVersion(buffer), scanRecords(buffer));
+        } catch (IOException e) {
+            throw new DukeException("Could not read " + file.getName() + "!");
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new DukeException(file.getName() + " is truncated!");
+        }
+    }
+
+    /**
+     * Returns the number of records in the archive.
+     *
+     * @return number of Tasks stored in the archive
+     */
+    public int size() {
+        return this.recordOffsets.length;
+    }
+
+    /**
+     * Returns the ID of the Task stored in a record without creating the Task. Tasks in
+     * files written before IDs were stored are numbered in order.
+     *
+     * @param recordIndex 0-indexed position of the record in the archive
+     * @return ID of the Task stored in the record
+     */
+    public long getId(int recordIndex) {
+        if (this.version == BinaryTaskFormat.VERSION_WITHOUT_IDS) {
+            return recordIndex + 1;
+        }
+        //The ID directly follows the tag
+        return this.buffer.getLong(this.recordOffsets[recordIndex] + 1);
+    }
+
+    /**
+     * Returns the Task stored in a record, with its ID set, creating it on first use. The
+     * Task is kept, so every later call for the record returns the same Task and its cached
+     * Strings. Threads calling this at once for a new record may each create the Task, but
+     * only one of them is kept and returned to all of them.
+     *
+     * @param recordIndex 0-indexed position of the record in the archive
+     * @return Task stored in the record
+     */
+    public Task get(int recordIndex) {
+        Task t = this.residentTasks.get(recordIndex);
+        if (t != null) {
+            return t;
+        }
+        t = materialize(recordIndex);
+        t.setId(getId(recordIndex));
+        if (this.residentTasks.compareAndSet(recordIndex, null, t)) {
+            return t;
+        }
+        return this.residentTasks.get(recordIndex);
+    }
+
+    /**
+     * Creates the Task stored in a record. Every call creates a new Task object.
+     *
+     * @param recordIndex 0-indexed position of the record in the archive
+     * @return Task stored in the record
+     */
+    public Task materialize(int recordIndex) {
+        ByteBuffer record = this.buffer.duplicate();
+        record.position(this.recordOffsets[recordIndex]);
+        try {
+            return BinaryTaskFormat.readTask(record, this.version);
+        } catch (DukeException e) {
+            //Every record was validated when the archive was opened
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static int[] scanRecords(ByteBuffer buffer) throws DukeException {
+        ByteBuffer buf = buffer.duplicate();
+        short version = BinaryTaskFormat.readVersion(buf);
+        int count = BinaryTaskFormat.readHeader(buf);
+        int idLength = version == BinaryTaskFormat.VERSION_WITHOUT_IDS ? 0 : 8;
+        int[] recordOffsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            recordOffsets[i] = buf.position();
+            byte tag = buf.get();
+            buf.position(buf.position() + idLength);
+            switch (tag & BinaryTaskFormat.TYPE_MASK) {
+            case BinaryTaskFormat.TODO_TAG:
+                break;
+            case BinaryTaskFormat.DEADLINE_TAG:
+                buf.position(buf.position() + 8);
+                break;
+            case BinaryTaskFormat.EVENT_TAG:
+                buf.position(buf.position() + 16);
+                break;
+            default:
+                throw new DukeException("Invalid record type encountered while reading saved task: " + tag);
+            }
+            int descriptionLength = buf.getInt();
+            if (descriptionLength < 0 || descriptionLength > buf.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            buf.position(buf.position() + descriptionLength);
+        }
+        return recordOffsets;
+    }
+}
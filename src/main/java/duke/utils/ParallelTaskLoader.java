@@ -0,0 +1,170 @@
+package duke.utils;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads a snapshot in the pipe-delimited format on a fork-join pool. The file is split
+ * into byte ranges that each end on a line break, every range is parsed into its own list
+ * of Tasks in parallel, and the lists are then concatenated in file order.
+ */
+public class ParallelTaskLoader {
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ForkJoinPool pool;
+
+    /** Constructor. Parses on the common fork-join pool. */
+    public ParallelTaskLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool ForkJoinPool on which the chunks are parsed
+     */
+    public ParallelTaskLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Reads every Task stored in <code>file</code>. Blank lines are skipped.
+     *
+     * @param file File in the pipe-delimited format
+     * @return Tasks in the file, in order
+     * @throws DukeException thrown when the file could not be read or contains an invalid Task.
+     */
+    public ArrayList<Task> load(File file) throws DukeException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new DukeException("No existing tasks found!"
+                + "Unable to create file for saving!");
+        }
+
+        int[] chunkStarts = splitIntoChunks(bytes);
+        ArrayList<ArrayList<Task>> chunkTasks = new ArrayList<ArrayList<Task>>();
+        for (int i = 0; i < chunkStarts.length - 1; i++) {
+            chunkTasks.add(null);
+        }
+        try {
+            this.pool.invoke(new ChunkParser(bytes, chunkStarts, chunkTasks, 0, chunkStarts.length - 1));
+        } catch (ChunkParseException e) {
+            throw e.dukeException;
+        }
+
+        int totalSize = 0;
+        for (ArrayList<Task> tasks : chunkTasks) {
+            totalSize += tasks.size();
+        }
+        ArrayList<Task> allStoredTasks = new ArrayList<Task>(totalSize);
+        for (ArrayList<Task> tasks : chunkTasks) {
+            allStoredTasks.addAll(tasks);
+        }
+        return allStoredTasks;
+    }
+
+    /**
+     * Divides <code>bytes</code> into roughly equal ranges, moving every boundary forward
+     * to just after the next line break.
+     *
+     * @return offsets at which each range starts, followed by the length of <code>bytes</code>
+     */
+    private int[] splitIntoChunks(byte[] bytes) {
+        int chunkCount = Math.max(1, Math.min(bytes.length / MIN_CHUNK_SIZE,
+                this.pool.getParallelism() * CHUNKS_PER_THREAD));
+        int[] chunkStarts = new int[chunkCount + 1];
+        int chunkSize = bytes.length / chunkCount;
+        for (int i = 1; i < chunkCount; i++) {
+            int start = Math.max(i * chunkSize, chunkStarts[i - 1]);
+            while (start < bytes.length && bytes[start - 1] != '\n') {
+                start++;
+            }
+            chunkStarts[i] = start;
+        }
+        chunkStarts[chunkCount] = bytes.length;
+        return chunkStarts;
+    }
+
+    private static ArrayList<Task> parseChunk(byte[] bytes, int start, int end) throws DukeException {
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && bytes[contentEnd - 1] == '\r') {
+                contentEnd--;
+            }
+            if (contentEnd > lineStart) {
+                String line = new String(bytes, lineStart, contentEnd - lineStart, StandardCharsets.UTF_8);
+                if (line.trim().length() != 0) {
+                    tasks.add(Storage.generateSavedTask(line));
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return tasks;
+    }
+
+    /** Parses a range of chunks, splitting it in half until a single chunk remains. */
+    private static class ChunkParser extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private byte[] bytes;
+        private int[] chunkStarts;
+        private ArrayList<ArrayList<Task>> chunkTasks;
+        private int fromChunk;
+        private int toChunk;
+
+        ChunkParser(byte[] bytes, int[] chunkStarts, ArrayList<ArrayList<Task>> chunkTasks,
+                int fromChunk, int toChunk) {
+            this.bytes = bytes;
+            this.chunkStarts = chunkStarts;
+            this.chunkTasks = chunkTasks;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.toChunk - this.fromChunk > 1) {
+                int middle = (this.fromChunk + this.toChunk) >>> 1;
+                invokeAll(new ChunkParser(this.bytes, this.chunkStarts, this.chunkTasks, this.fromChunk, middle),
+                        new ChunkParser(this.bytes, this.chunkStarts, this.chunkTasks, middle, this.toChunk));
+                return;
+            }
+            try {
+                ArrayList<Task> tasks = parseChunk(this.bytes, this.chunkStarts[this.fromChunk],
+                        this.chunkStarts[this.fromChunk + 1]);
+                this.chunkTasks.set(this.fromChunk, tasks);
+            } catch (DukeException e) {
+                throw new ChunkParseException(e);
+            }
+        }
+    }
+
+    /** Carries a DukeException out of a ChunkParser, which may only throw unchecked exceptions. */
+    private static class ChunkParseException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private DukeException dukeException;
+
+        ChunkParseException(DukeException dukeException) {
+            super(dukeException);
+            this.dukeException = dukeException;
+        }
+    }
+}
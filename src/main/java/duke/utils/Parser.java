@@ -5,129 +5,388 @@ import duke.commands.Command;
 import duke.commands.DeleteCommand;
 import duke.commands.SaveCommand;
 import duke.commands.AddCommand;
+import duke.commands.ConflictsCommand;
 import duke.commands.ListCommand;
 import duke.commands.DoneCommand;
+import duke.commands.DueCommand;
+import duke.commands.EventsCommand;
+import duke.commands.ExecCommand;
 import duke.commands.FindCommand;
+import duke.commands.FreeSlotsCommand;
 import duke.commands.HelpCommand;
+import duke.commands.OverdueCommand;
+import duke.commands.Page;
 
-import java.util.Scanner;
-import java.util.ArrayList;
+import java.text.ParseException;
 
 /**
  * Class used to parse all the string input coming from the user, manage error handling
  * and generate Commands that can then be invoked via their .execute() methods to trigger certain
  * behaviours. This class is meant as an abstraction to abstract away the details and complexities
  * behind parsing using input.
+ *
+ * <p>Input is read in a single pass over its characters, keeping only the indices at which each
+ * parameter starts and ends, and times are parsed straight from those ranges. Parsing a line thus
+ * creates only the Command itself, the Strings it keeps and the DukeDates of its times. Commands
+ * without parameters hold no state, so a single instance of each is shared.
  */
 public class Parser {
+    private static final Command SAVE_COMMAND = new SaveCommand();
+    private static final Command LIST_COMMAND = new ListCommand();
+    private static final Command OVERDUE_COMMAND = new OverdueCommand();
+    private static final Command CONFLICTS_COMMAND = new ConflictsCommand();
+    private static final Command HELP_COMMAND = new HelpCommand();
+    //Task IDs with more digits would not fit into a long
+    private static final int MAX_ID_DIGITS = 18;
+    //Page numbers and limits with more digits might not fit into an int
+    private static final int MAX_PAGE_DIGITS = 9;
+
     /**
      * Parses the entire line of user input and generates a Command object.
      *
      * @param fullCommand entire line of user input
      * @return Command object whose .execute() method can be called to achieve some desired behaviour
-     * @throws DukeException thrown when an unrecognised command is encountered.
+     * @throws DukeException thrown when an unrecognised command or invalid parameters are encountered.
      */
-    public static Command parse(String fullCommand) throws DukeException {
-        Scanner sc = new Scanner(fullCommand);
-        String command = sc.next();
-        switch (command.toLowerCase()) {
-        case "save":
-            return new SaveCommand();
-        case "list":
-            return new ListCommand();
-        case "todo":
-            return new AddCommand(parseToDo(sc.nextLine()));
-        case "event":
-            return new AddCommand(parseEvent(sc.nextLine()));
-        case "deadline":
-            return new AddCommand(parseDeadline(sc.nextLine()));
-        case "done":
-            return new DoneCommand(sc.nextInt());
-        case "delete":
-            return new DeleteCommand(sc.nextInt());
-        case "find":
-            return new FindCommand(sc.nextLine());
-        case "help":
-            return new HelpCommand();
-        default:
-            throw new DukeException("Unrecognised command: " + command);
+    public static Command parse(CharSequence fullCommand) throws DukeException {
+        int end = trimEnd(fullCommand, 0, fullCommand.length());
+        int start = skipWhitespace(fullCommand, 0, end);
+        int commandEnd = start;
+        while (commandEnd < end && !Character.isWhitespace(fullCommand.charAt(commandEnd))) {
+            commandEnd++;
+        }
+        if (commandEnd == start) {
+            throw new DukeException("Please enter a command!");
+        }
+        //Parameters are trimmed on both sides from here on
+        int paramStart = skipWhitespace(fullCommand, commandEnd, end);
+
+        if (isKeyword(fullCommand, start, commandEnd, "save")) {
+            return SAVE_COMMAND;
+        } else if (isKeyword(fullCommand, start, commandEnd, "list")) {
+            return paramStart == end ? LIST_COMMAND : new ListCommand(parsePage(fullCommand, paramStart, end));
+        } else if (isKeyword(fullCommand, start, commandEnd, "todo")) {
+            return parseToDoCommand(fullCommand, paramStart, end);
+        } else if (isKeyword(fullCommand, start, commandEnd, "event")) {
+            return parseEventCommand(fullCommand, paramStart, end);
+        } else if (isKeyword(fullCommand, start, commandEnd, "deadline")) {
+            return parseDeadlineCommand(fullCommand, paramStart, end);
+        } else if (isKeyword(fullCommand, start, commandEnd, "done")) {
+            return new DoneCommand(parseId(fullCommand, paramStart, end));
+        } else if (isKeyword(fullCommand, start, commandEnd, "delete")) {
+            return new DeleteCommand(parseId(fullCommand, paramStart, end));
+        } else if (isKeyword(fullCommand, start, commandEnd, "find")) {
+            return parseFindCommand(fullCommand, paramStart, end);
+        } else if (isKeyword(fullCommand, start, commandEnd, "due")) {
+            return parseDueCommand(fullCommand, paramStart, end);
+        } else if (isKeyword(fullCommand, start, commandEnd, "events")) {
+            return parseEventsCommand(fullCommand, paramStart, end);
+        } else if (isKeyword(fullCommand, start, commandEnd, "overdue")) {
+            return OVERDUE_COMMAND;
+        } else if (isKeyword(fullCommand, start, commandEnd, "conflicts")) {
+            return CONFLICTS_COMMAND;
+        } else if (isKeyword(fullCommand, start, commandEnd, "freeslots")) {
+            return parseFreeSlotsCommand(fullCommand, paramStart, end);
+        } else if (isKeyword(fullCommand, start, commandEnd, "exec")) {
+            if (paramStart == end) {
+                throw new DukeException("Script file is not given!");
+            }
+            return new ExecCommand(fullCommand.subSequence(paramStart, end).toString());
+        } else if (isKeyword(fullCommand, start, commandEnd, "help")) {
+            return HELP_COMMAND;
         }
+        throw new DukeException("Unrecognised command: " + fullCommand.subSequence(start, commandEnd));
     }
 
-    /**
-     * Method to parse the parameters of the ToDo object.
-     *
-     * @param remainingParams remaining parameters required to initialise ToDo object
-     * @return ArrayList containing the processed parameters, ready to be passed to a Command object
-     * @throws DukeException thrown when task description is empty/invalid.
-     */
-    public static ArrayList<String> parseToDo(String remainingParams) throws DukeException {
-        String taskDescription = remainingParams.trim();
-        if (taskDescription.length() == 0) {
+    private static Command parseToDoCommand(CharSequence input, int start, int end) throws DukeException {
+        if (start == end) {
             throw new DukeException("Task Description is empty!");
-        } else {
-            ArrayList<String> commandParams = new ArrayList<String>();
-            commandParams.add("todo");
-            commandParams.add(taskDescription);
-            return commandParams;
+        }
+        return new AddCommand(input.subSequence(start, end).toString());
+    }
+
+    private static Command parseDeadlineCommand(CharSequence input, int start, int end) throws DukeException {
+        int[] bounds = splitDeadline(input, start, end);
+        return new AddCommand(input.subSequence(bounds[0], bounds[1]).toString(),
+                new DukeDate(parseTime(input, bounds[2], bounds[3])));
+    }
+
+    private static Command parseEventCommand(CharSequence input, int start, int end) throws DukeException {
+        int[] bounds = splitEvent(input, start, end);
+        long startTime = parseTime(input, bounds[2], bounds[3]);
+        long endTime = parseTime(input, bounds[4], bounds[5]);
+        checkEventTimes(startTime, endTime);
+        return new AddCommand(input.subSequence(bounds[0], bounds[1]).toString(),
+                new DukeDate(startTime), new DukeDate(endTime));
+    }
+
+    private static void checkEventTimes(long startTime, long endTime) throws DukeException {
+        if (endTime < startTime) {
+            throw new DukeException("Event ends before it starts!");
         }
     }
 
+    private static Command parseFindCommand(CharSequence input, int start, int end) throws DukeException {
+        FindCommand.Mode mode = FindCommand.Mode.SUBSTRING;
+        if (isFlag(input, start, end, 'w')) {
+            mode = FindCommand.Mode.WORDS;
+            start = skipWhitespace(input, start + 2, end);
+        } else if (isFlag(input, start, end, 'f')) {
+            mode = FindCommand.Mode.FUZZY;
+            start = skipWhitespace(input, start + 2, end);
+        }
+        int optionsStart = findPageOptions(input, start, end);
+        int keywordEnd = trimEnd(input, start, optionsStart);
+        if (start == keywordEnd) {
+            throw new DukeException("Search term is empty!");
+        }
+        return new FindCommand(mode, input.subSequence(start, keywordEnd).toString(),
+                parsePage(input, optionsStart, end));
+    }
+
     /**
-     * Method to parse the parameters of the Event object.
-     *
-     * @param remainingParams remaining parameters required to initialise Event object
-     * @return ArrayList containing the processed paramters, ready to be passed to a Command object
-     * @throws DukeException thrown when event parameters are invalid.
+     * Returns the start of the "--after", "--page" and "--limit" options at the end of the
+     * parameters, or end if there are none. Options are only looked for after the first
+     * word, so that a search term may itself start with "--".
      */
-    public static ArrayList<String> parseEvent(String remainingParams) throws DukeException {
+    private static int findPageOptions(CharSequence input, int start, int end) {
+        int optionsStart = end;
+        while (true) {
+            int valueEnd = trimEnd(input, start, optionsStart);
+            int valueStart = wordStart(input, start, valueEnd);
+            int nameEnd = trimEnd(input, start, valueStart);
+            int nameStart = wordStart(input, start, nameEnd);
+            if (nameStart == start || !isPageOption(input, nameStart, nameEnd)) {
+                return optionsStart;
+            }
+            optionsStart = nameStart;
+        }
+    }
+
+    /** Parses options such as "--page 2 --limit 20", which make up the whole range given. */
+    private static Page parsePage(CharSequence input, int start, int end) throws DukeException {
+        long afterId = 0;
+        int number = 1;
+        int limit = start == end ? Integer.MAX_VALUE : Page.DEFAULT_LIMIT;
+        while (start < end) {
+            int nameEnd = wordEnd(input, start, end);
+            int valueStart = skipWhitespace(input, nameEnd, end);
+            int valueEnd = wordEnd(input, valueStart, end);
+            if (isKeyword(input, start, nameEnd, "--after")) {
+                afterId = parseId(input, valueStart, valueEnd);
+            } else if (isKeyword(input, start, nameEnd, "--page")) {
+                number = parsePageNumber(input, valueStart, valueEnd);
+            } else if (isKeyword(input, start, nameEnd, "--limit")) {
+                limit = parsePageNumber(input, valueStart, valueEnd);
+            } else {
+                throw new DukeException("Unrecognised option: " + input.subSequence(start, nameEnd));
+            }
+            start = skipWhitespace(input, valueEnd, end);
+        }
+        return new Page(afterId, number, limit);
+    }
+
+    private static int parsePageNumber(CharSequence input, int start, int end) throws DukeException {
+        if (start == end || end - start > MAX_PAGE_DIGITS) {
+            throw new DukeException("Page number or limit is of invalid form!");
+        }
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (!isDigit(c)) {
+                throw new DukeException("Page number or limit is of invalid form!");
+            }
+            number = number * 10 + (c - '0');
+        }
+        if (number == 0) {
+            throw new DukeException("Page number or limit must be at least 1!");
+        }
+        return number;
+    }
+
+    private static Command parseDueCommand(CharSequence input, int start, int end) throws DukeException {
+        int dash = indexOf(input, "-", start, end);
+        if (dash < 0) {
+            if (start == end) {
+                throw new DukeException("Time range is of invalid form!");
+            }
+            return new DueCommand(Long.MIN_VALUE, parseTime(input, start, end));
+        }
+        return new DueCommand(parseFirstTime(input, start, dash), parseSecondTime(input, dash, end));
+    }
+
+    private static Command parseEventsCommand(CharSequence input, int start, int end) throws DukeException {
+        int dash = indexOf(input, "-", start, end);
+        if (dash < 0) {
+            if (start == end) {
+                throw new DukeException("Time range is of invalid form!");
+            }
+            long time = parseTime(input, start, end);
+            return new EventsCommand(time, time);
+        }
+        return new EventsCommand(parseFirstTime(input, start, dash), parseSecondTime(input, dash, end));
+    }
+
+    private static Command parseFreeSlotsCommand(CharSequence input, int start, int end) throws DukeException {
+        int lengthEnd = start;
+        long minLength = 0;
+        while (lengthEnd < end && isDigit(input.charAt(lengthEnd)) && lengthEnd - start < MAX_ID_DIGITS) {
+            minLength = minLength * 10 + (input.charAt(lengthEnd) - '0');
+            lengthEnd++;
+        }
+        int timesStart = skipWhitespace(input, lengthEnd, end);
+        int dash = indexOf(input, "-", timesStart, end);
+        if (minLength <= 0 || timesStart == lengthEnd || dash < 0) {
+            throw new DukeException("Freeslots is of invalid form!");
+        }
+        return new FreeSlotsCommand(minLength, parseFirstTime(input, timesStart, dash),
+                parseSecondTime(input, dash, end));
+    }
+
+    /** Parses the time before the dash at <code>dash</code>, which starts at <code>start</code>. */
+    private static long parseFirstTime(CharSequence input, int start, int dash) throws DukeException {
+        int end = trimEnd(input, start, dash);
+        if (start == end) {
+            throw new DukeException("Time range is of invalid form!");
+        }
+        return parseTime(input, start, end);
+    }
+
+    /** Parses the time after the dash at <code>dash</code>, which ends at <code>end</code>. */
+    private static long parseSecondTime(CharSequence input, int dash, int end) throws DukeException {
+        int start = skipWhitespace(input, dash + 1, end);
+        if (start == end || indexOf(input, "-", start, end) >= 0) {
+            throw new DukeException("Time range is of invalid form!");
+        }
+        return parseTime(input, start, end);
+    }
+
+    private static long parseTime(CharSequence input, int start, int end) throws DukeException {
         try {
-            String[] strArr = remainingParams.split("/at");
-            String taskDescription = strArr[0].trim();
-            String duration = strArr[1].trim();
-            String[] durationArr = duration.split("-");
+            return DukeDate.parseEpochMinute(input, start, end);
+        } catch (ParseException e) {
+            throw new DukeException("Time in invalid format: " + e.getMessage());
+        }
+    }
 
-            if (taskDescription.length() == 0 || durationArr.length == 0) {
-                throw new DukeException("Event is of invalid form!");
+    private static long parseId(CharSequence input, int start, int end) throws DukeException {
+        if (start == end || end - start > MAX_ID_DIGITS) {
+            throw new DukeException("Task ID is of invalid form!");
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (!isDigit(c)) {
+                throw new DukeException("Task ID is of invalid form!");
             }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
 
-            ArrayList<String> commandParams = new ArrayList<String>();
-            commandParams.add("event");
-            commandParams.add(taskDescription);
-            commandParams.add(durationArr[0].trim());
-            commandParams.add(durationArr[1].trim());
+    /** Returns the bounds of the description and the time of a Deadline, each trimmed. */
+    private static int[] splitDeadline(CharSequence input, int start, int end) throws DukeException {
+        end = trimEnd(input, start, end);
+        start = skipWhitespace(input, start, end);
+        int separator = indexOf(input, "/by", start, end);
+        int descriptionEnd = trimEnd(input, start, separator);
+        int timeStart = skipWhitespace(input, separator + 3, end);
+        if (separator < 0 || descriptionEnd == start || timeStart == end) {
+            throw new DukeException("Deadline is of invalid form!");
+        }
+        return new int[] {start, descriptionEnd, timeStart, end};
+    }
 
-            return commandParams;
-        } catch (ArrayIndexOutOfBoundsException e) {
+    /** Returns the bounds of the description, the start time and the end time of an Event, each trimmed. */
+    private static int[] splitEvent(CharSequence input, int start, int end) throws DukeException {
+        end = trimEnd(input, start, end);
+        start = skipWhitespace(input, start, end);
+        int separator = indexOf(input, "/at", start, end);
+        int descriptionEnd = trimEnd(input, start, separator);
+        int dash = indexOf(input, "-", separator + 3, end);
+        int startTimeStart = skipWhitespace(input, separator + 3, dash);
+        int startTimeEnd = trimEnd(input, startTimeStart, dash);
+        int endTimeStart = skipWhitespace(input, dash + 1, end);
+        if (separator < 0 || dash < 0 || descriptionEnd == start || startTimeStart == startTimeEnd
+                || endTimeStart == end) {
             throw new DukeException("Event is of invalid form!");
         }
+        return new int[] {start, descriptionEnd, startTimeStart, startTimeEnd, endTimeStart, end};
     }
 
-    /**
-     * Method to parse the parameters of the Deadline object.
-     *
-     * @param remainingParams remaining parameters required to initialise Deadline object
-     * @return ArrayList containing the processed parameters, ready to be passed to a Command object
-     * @throws DukeException thrown when deadline parameters are invalid.
-     */
-    public static ArrayList<String> parseDeadline(String remainingParams) throws DukeException {
-        try {
-            String[] strArr = remainingParams.split("/by");
-            String taskDescription = strArr[0].trim();
-            String deadline = strArr[1].trim();
+    /** Checks whether the characters from start to end spell keyword, ignoring case. */
+    private static boolean isKeyword(CharSequence input, int start, int end, String keyword) {
+        if (end - start != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Character.toLowerCase(input.charAt(start + i)) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Checks whether the characters from start to end spell the name of a paging option. */
+    private static boolean isPageOption(CharSequence input, int start, int end) {
+        return isKeyword(input, start, end, "--after") || isKeyword(input, start, end, "--page")
+                || isKeyword(input, start, end, "--limit");
+    }
 
-            if (taskDescription.length() == 0 || deadline.length() == 0) {
-                throw new DukeException("Deadline is of invalid form!");
+    /** Returns the start of the word ending at end, going back no further than start. */
+    private static int wordStart(CharSequence input, int start, int end) {
+        while (end > start && !Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /** Returns the end of the word starting at start, going no further than end. */
+    private static int wordEnd(CharSequence input, int start, int end) {
+        while (start < end && !Character.isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /** Checks whether a flag such as "-w" starts at start and is followed by whitespace or nothing. */
+    private static boolean isFlag(CharSequence input, int start, int end, char flag) {
+        return end - start >= 2 && input.charAt(start) == '-' && input.charAt(start + 1) == flag
+                && (end - start == 2 || Character.isWhitespace(input.charAt(start + 2)));
+    }
+
+    /** Returns the index of the first occurrence of target from start to end, or -1 if there is none. */
+    private static int indexOf(CharSequence input, String target, int start, int end) {
+        if (start < 0) {
+            return -1;
+        }
+        for (int i = start; i <= end - target.length(); i++) {
+            int j = 0;
+            while (j < target.length() && input.charAt(i + j) == target.charAt(j)) {
+                j++;
+            }
+            if (j == target.length()) {
+                return i;
             }
+        }
+        return -1;
+    }
 
-            ArrayList<String> commandParams = new ArrayList<String>();
-            commandParams.add("deadline");
-            commandParams.add(taskDescription);
-            commandParams.add(deadline);
+    private static int skipWhitespace(CharSequence input, int start, int end) {
+        while (start < end && Character.isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
 
-            return commandParams;
-        } catch (ArrayIndexOutOfBoundsException e) {
-            throw new DukeException("Deadline is of invalid form!");
+    private static int trimEnd(CharSequence input, int start, int end) {
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
         }
+        return end;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -0,0 +1,133 @@
+package duke.utils;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of Task IDs in ascending order, as kept by the search indexes for every
+ * word or trigram. IDs are normally appended, since TaskList hands them out in ascending
+ * order.
+ */
+class PostingList {
+    private static final int MIN_POSTINGS = 4;
+
+    private long[] ids = new long[MIN_POSTINGS];
+    private int size;
+
+    /**
+     * Returns the number of IDs in the posting list.
+     *
+     * @return number of IDs
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the ID at a given position.
+     *
+     * @param i 0-indexed position
+     * @return <code>i</code>-th smallest ID
+     */
+    long get(int i) {
+        return this.ids[i];
+    }
+
+    /**
+     * Adds <code>id</code>, keeping the IDs in ascending order.
+     *
+     * @param id ID not yet in the posting list
+     */
+    void add(long id) {
+        if (this.size == this.ids.length) {
+            this.ids = Arrays.copyOf(this.ids, this.size * 2);
+        }
+        int i = this.size;
+        if (i > 0 && this.ids[i - 1] > id) {
+            //Only happens when Tasks are re-added out of order
+            i = -Arrays.binarySearch(this.ids, 0, this.size, id) - 1;
+            System.arraycopy(this.ids, i, this.ids, i + 1, this.size - i);
+        }
+        this.ids[i] = id;
+        this.size++;
+    }
+
+    /**
+     * Removes <code>id</code> if it is in the posting list.
+     *
+     * @param id ID to be removed
+     * @return true if <code>id</code> was removed
+     */
+    boolean remove(long id) {
+        int i = Arrays.binarySearch(this.ids, 0, this.size, id);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(this.ids, i + 1, this.ids, i, this.size - i - 1);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Returns the position of the first ID not smaller than <code>id</code>, searching
+     * from <code>from</code> onwards with exponentially growing steps.
+     *
+     * @param id   ID to search for
+     * @param from position from which to search
+     * @return position of <code>id</code>, or of the next larger ID, or <code>size()</code>
+     */
+    int gallop(long id, int from) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < this.size && this.ids[high] < id) {
+            low = high + 1;
+            high += step;
+            step *= 2;
+        }
+        high = Math.min(high, this.size);
+        int i = Arrays.binarySearch(this.ids, low, high, id);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Writes the IDs present in all of <code>lists</code> into <code>matches</code>. The
+     * posting lists are reordered so that the shortest one comes first; every ID in it is
+     * then looked up in the others by galloping from where the previous lookup ended.
+     *
+     * @param lists     posting lists to intersect; only the first <code>listCount</code> are used
+     * @param listCount number of posting lists to intersect, at least 1
+     * @param cursors   scratch space holding at least <code>listCount</code> positions
+     * @param matches   buffer at least as long as the shortest posting list
+     * @return number of IDs written into <code>matches</code>, in ascending order
+     */
+    static int intersect(PostingList[] lists, int listCount, int[] cursors, long[] matches) {
+        for (int i = 1; i < listCount; i++) {
+            //Insertion sort by size; queries hardly ever have more than a few terms
+            PostingList list = lists[i];
+            int j = i - 1;
+            while (j >= 0 && lists[j].size > list.size) {
+                lists[j + 1] = lists[j];
+                j--;
+            }
+            lists[j + 1] = list;
+        }
+        Arrays.fill(cursors, 0, listCount, 0);
+
+        PostingList shortest = lists[0];
+        int count = 0;
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            boolean isInAll = true;
+            for (int j = 1; j < listCount && isInAll; j++) {
+                int cursor = lists[j].gallop(id, cursors[j]);
+                cursors[j] = cursor;
+                isInAll = cursor < lists[j].size && lists[j].ids[cursor] == id;
+            }
+            if (isInAll) {
+                matches[count] = id;
+                count++;
+            }
+        }
+        return count;
+    }
+}
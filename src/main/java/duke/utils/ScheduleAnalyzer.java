@@ -0,0 +1,109 @@
+package duke.utils;
+
+import duke.tasks.Event;
+import duke.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Analyses the schedule formed by the Events in a TaskList by sorting them by start time
+ * once and sweeping over their endpoints, which takes O(n log n) time instead of comparing
+ * every pair of Events. Times are read from each Event once, as epoch minutes.
+ *
+ * <p>Events are treated as half-open intervals here: an Event ending at the time another
+ * one starts does not conflict with it, and leaves no gap between them either.
+ */
+public class ScheduleAnalyzer {
+    private Interval[] intervals;
+
+    /**
+     * Constructor. Collects and sorts the Events in <code>allTasks</code>.
+     *
+     * @param allTasks Tasks to take the Events from; other Tasks are ignored
+     */
+    public ScheduleAnalyzer(Iterable<Task> allTasks) {
+        ArrayList<Interval> events = new ArrayList<Interval>();
+        for (Task t : allTasks) {
+            if (t instanceof Event) {
+                Event e = (Event) t;
+                events.add(new Interval(e.getStartTime().getEpochMinute(), e.getEndTime().getEpochMinute(), e));
+            }
+        }
+        this.intervals = events.toArray(new Interval[0]);
+        Arrays.sort(this.intervals, (a, b) -> Long.compare(a.start, b.start));
+    }
+
+    /**
+     * Finds every pair of Events that overlap. While sweeping over the Events in order of
+     * start time, the Events that have not ended yet are kept in a heap ordered by end time;
+     * each Event conflicts with exactly the Events still in the heap when it starts. Takes
+     * O(n log n + <i>k</i>) time for <i>k</i> conflicts.
+     *
+     * @return pairs of overlapping Events, the earlier-starting Event first
+     */
+    public ArrayList<Event[]> findConflicts() {
+        ArrayList<Event[]> conflicts = new ArrayList<Event[]>();
+        PriorityQueue<Interval> ongoing = new PriorityQueue<Interval>((a, b) -> Long.compare(a.end, b.end));
+        for (Interval current : this.intervals) {
+            while (!ongoing.isEmpty() && ongoing.peek().end <= current.start) {
+                ongoing.poll();
+            }
+            for (Interval other : ongoing) {
+                //Fails only for an empty Event starting together with other
+                if (other.start < current.end) {
+                    conflicts.add(new Event[] {other.event, current.event});
+                }
+            }
+            if (current.end > current.start) {
+                //Empty Events cannot overlap anything starting after them
+                ongoing.add(current);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Finds the gaps of at least <code>minLength</code> minutes between
+     * <code>fromMinute</code> and <code>toMinute</code> during which no Event is on.
+     *
+     * @param fromMinute start of the range as an epoch minute
+     * @param toMinute   end of the range as an epoch minute
+     * @param minLength  minimum length of a gap in minutes
+     * @return start and end minute of every gap, in order
+     */
+    public ArrayList<long[]> findFreeSlots(long fromMinute, long toMinute, long minLength) {
+        ArrayList<long[]> freeSlots = new ArrayList<long[]>();
+        long freeFrom = fromMinute;
+        for (Interval interval : this.intervals) {
+            if (interval.start >= toMinute) {
+                break;
+            }
+            if (interval.end <= freeFrom) {
+                continue;
+            }
+            if (interval.start - freeFrom >= minLength) {
+                freeSlots.add(new long[] {freeFrom, interval.start});
+            }
+            freeFrom = Math.max(freeFrom, interval.end);
+        }
+        if (toMinute - freeFrom >= minLength) {
+            freeSlots.add(new long[] {freeFrom, toMinute});
+        }
+        return freeSlots;
+    }
+
+    /** Times of an Event, read once before sweeping. */
+    private static class Interval {
+        private final long start;
+        private final long end;
+        private final Event event;
+
+        Interval(long start, long end, Event event) {
+            this.start = start;
+            this.end = end;
+            this.event = event;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package duke.utils;
 
-import duke.Duke;
 import duke.exceptions.DukeException;
 import duke.tasks.Deadline;
 import duke.tasks.Event;
@@ -8,110 +7,449 @@ import duke.tasks.Task;
 import duke.tasks.ToDo;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements the logic required to save Tasks. This class abstracts away the details
  * required for saving Tasks onto disk as well as reading the disk data and converting
  * the data back into Task objects. The abstraction enables any user of the class to simply
  * use the <code>save</code> and <code>load</code> methods.
+ *
+ * <p>Individual mutations are not written out by re-saving the whole TaskList. Instead,
+ * they are appended to a Journal kept next to the snapshot file, and <code>load</code>
+ * replays the journal on top of the last snapshot. A Compactor folds the journal back
+ * into the snapshot in the background once it grows too large.
+ *
+ * <p>Snapshots are never overwritten in place: they are written to a sibling temporary
+ * file which then atomically replaces the old snapshot, so a crash can only ever leave
+ * the old or the new snapshot behind. When writes are forced to disk is decided by an
+ * FsyncPolicy. Snapshots are written either in the pipe-delimited text format or in the
+ * more compact BinaryTaskFormat. In write-behind mode, journal records are written by a background thread
+ * in batches instead of by the thread executing the Commands.
+ *
+ * <p>A batch of Commands, such as a script, can be persisted as a whole: between
+ * <code>beginBatch</code> and <code>commitBatch</code>, records are only gathered in memory
+ * and are then written with a single append, or dropped by <code>rollbackBatch</code>.
  */
 public class Storage {
+    /** Name of the system property from which the default snapshot format is read. */
+    public static final String SNAPSHOT_FORMAT_PROPERTY_NAME = "duke.snapshotFormat";
+
     private File file;
+    private FsyncPolicy fsyncPolicy;
+    private Journal journal;
+    private Compactor compactor;
+    private final Object journalLock = new Object();
+    private WriteBehindQueue writeBehindQueue;
+    private volatile boolean isBinarySnapshot;
+    private ArrayList<String> batchRecords;
+    private boolean isSaveRequestedInBatch;
+    private ScheduledExecutorService journalForcer;
 
     /**
-     * Constructor.
+     * Constructor. Uses the FsyncPolicy configured through the <code>duke.fsync</code>
+     * system property.
      *
      * @param filepath String representing the path to the file in which Task data will be saved
      */
     public Storage(String filepath) {
+        this(filepath, FsyncPolicy.fromSystemProperty());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param filepath    String representing the path to the file in which Task data will be saved
+     * @param fsyncPolicy FsyncPolicy deciding when written data is forced to disk
+     */
+    public Storage(String filepath, FsyncPolicy fsyncPolicy) {
         this.file = new File(filepath);
+        this.fsyncPolicy = fsyncPolicy;
+        this.journal = new Journal(new File(filepath + ".journal"), fsyncPolicy);
+        this.compactor = new Compactor(this, this.file, fsyncPolicy);
+        this.isBinarySnapshot = "binary".equalsIgnoreCase(System.getProperty(SNAPSHOT_FORMAT_PROPERTY_NAME));
+        if (fsyncPolicy.getMode() == FsyncPolicy.Mode.INTERVAL) {
+            //Appends skip the force while the interval lasts, so the last of them are forced from here
+            long intervalMillis = Math.max(1, fsyncPolicy.getIntervalMillis());
+            this.journalForcer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "duke-fsync");
+                t.setDaemon(true);
+                return t;
+            });
+            this.journalForcer.scheduleWithFixedDelay(this::forceJournal, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
-     * Convenience method to save a TaskList onto disk.
+     * Chooses the format in which snapshots are written. Snapshots in either format can
+     * always be loaded. Defaults to the value of the <code>duke.snapshotFormat</code>
+     * system property ("text" or "binary"), or to the pipe-delimited text format.
      *
-     * @param allTasks TaskList representing a collection of Task objects
-     * @throws DukeException thrown when error encountered saving to file.
+     * @param isBinarySnapshot true to write snapshots in the BinaryTaskFormat
      */
-    public void save(TaskList allTasks) throws DukeException {
-        try {
-            Path path = Paths.get(Duke.saveFilePath);
-            Files.deleteIfExists(path);
+    public synchronized void setBinarySnapshot(boolean isBinarySnapshot) {
+        this.isBinarySnapshot = isBinarySnapshot;
+    }
 
-            File f = new File(Duke.saveFilePath);
-            f.getParentFile().mkdirs();
-            f.createNewFile();
-            FileWriter fw = new FileWriter(Duke.saveFilePath, true);
+    /**
+     * Getter method for the Compactor responsible for this Storage's journal.
+     *
+     * @return Compactor that can be configured and queried for compaction statistics
+     */
+    public Compactor getCompactor() {
+        return this.compactor;
+    }
+
+    /**
+     * Switches this Storage to write-behind mode. Journal records are then handed to a
+     * WriteBehindQueue instead of being written by the calling thread, and all records
+     * produced within the same commit window are written together.
+     *
+     * @param commitWindowMillis how long records are gathered before being written together
+     */
+    public synchronized void enableWriteBehind(long commitWindowMillis) {
+        if (this.writeBehindQueue == null) {
+            this.writeBehindQueue = new WriteBehindQueue(this::commit, commitWindowMillis);
+        }
+    }
+
+    /**
+     * Records the addition of a Task without rewriting the whole TaskList.
+     *
+     * @param t Task that was added to the end of the TaskList
+     * @throws DukeException thrown when error encountered writing to the journal.
+     */
+    public synchronized void recordAdd(Task t) throws DukeException {
+        record(Journal.addRecord(t));
+    }
+
+    /**
+     * Records the completion of a Task without rewriting the whole TaskList.
+     *
+     * @param taskId ID of the completed task
+     * @throws DukeException thrown when error encountered writing to the journal.
+     */
+    public synchronized void recordDone(long taskId) throws DukeException {
+        record(Journal.doneRecord(taskId));
+    }
 
-            ArrayList<Task> allTasksArrList = allTasks.getArrayList();
-            for (Task t : allTasksArrList) {
-                fw.write(t.getStorageFormat() + "\n");
+    /**
+     * Records the deletion of a Task without rewriting the whole TaskList.
+     *
+     * @param taskId ID of the deleted task
+     * @throws DukeException thrown when error encountered writing to the journal.
+     */
+    public synchronized void recordDelete(long taskId) throws DukeException {
+        record(Journal.deleteRecord(taskId));
+    }
+
+    /**
+     * Starts a batch. Until the batch is committed or rolled back, mutations are only
+     * gathered in memory, and a request to save is held back until the batch commits.
+     *
+     * @throws DukeException thrown when a batch has already been started.
+     */
+    public synchronized void beginBatch() throws DukeException {
+        if (this.batchRecords != null) {
+            throw new DukeException("A batch of commands is already running!");
+        }
+        this.batchRecords = new ArrayList<String>();
+        this.isSaveRequestedInBatch = false;
+    }
+
+    /**
+     * Persists every mutation recorded since <code>beginBatch</code> at once: as a single
+     * journal append forced to disk at most once, or as a single snapshot if a save was
+     * requested during the batch. The batch is over even if writing fails.
+     *
+     * @param allTasks TaskList the batch was applied to
+     * @throws DukeException thrown when error encountered writing to the journal or snapshot.
+     */
+    public synchronized void commitBatch(TaskList allTasks) throws DukeException {
+        assert this.batchRecords != null : "No batch has been started";
+        ArrayList<String> records = this.batchRecords;
+        this.batchRecords = null;
+        if (this.isSaveRequestedInBatch) {
+            save(allTasks);
+        } else if (!records.isEmpty()) {
+            if (this.writeBehindQueue != null) {
+                //Records from before the batch must reach the journal first
+                this.writeBehindQueue.flush();
             }
+            commit(records);
+        }
+    }
 
-            fw.close();
-        } catch (IOException e) {
-            throw new DukeException("Could not save to file!");
+    /** Discards every mutation recorded since <code>beginBatch</code>. */
+    public synchronized void rollbackBatch() {
+        assert this.batchRecords != null : "No batch has been started";
+        this.batchRecords = null;
+    }
+
+    /**
+     * Blocks until every mutation recorded so far has been written to the journal.
+     * Returns immediately unless write-behind mode is enabled.
+     *
+     * @throws DukeException thrown when error encountered writing to the journal.
+     */
+    public void flush() throws DukeException {
+        WriteBehindQueue queue;
+        synchronized (this) {
+            queue = this.writeBehindQueue;
+        }
+        if (queue != null) {
+            queue.flush();
+        }
+    }
+
+    /**
+     * Writes out every outstanding mutation and stops the write-behind writer, if any.
+     * Called when Duke shuts down. If some mutations could not be written to the journal,
+     * the caller must <code>save</code> the TaskList, or they are lost.
+     *
+     * @throws DukeException thrown when error encountered writing to the journal.
+     */
+    public synchronized void close() throws DukeException {
+        try {
+            if (this.writeBehindQueue != null) {
+                this.writeBehindQueue.close();
+            }
+        } finally {
+            if (this.journalForcer != null) {
+                this.journalForcer.shutdown();
+                this.journal.forceUnforcedRecords();
+            }
+        }
+    }
+
+    private void forceJournal() {
+        try {
+            this.journal.forceUnforcedRecords();
+        } catch (DukeException e) {
+            //Tried again after the next interval
         }
+    }
+
+    /**
+     * Convenience method to save a TaskList onto disk. The saved snapshot captures
+     * every journal record written so far, so the journal is discarded afterwards.
+     *
+     * @param allTasks TaskList representing a collection of Task objects
+     * @throws DukeException thrown when error encountered saving to file.
+     */
+    public synchronized void save(TaskList allTasks) throws DukeException {
+        if (this.batchRecords != null) {
+            //Saving now would write out changes that may still be rolled back
+            this.isSaveRequestedInBatch = true;
+            return;
+        }
+        if (this.writeBehindQueue != null) {
+            //Records that could not be journalled are captured by the snapshot below, so they are dropped
+            this.writeBehindQueue.awaitCommitted();
+            this.writeBehindQueue.discardUncommitted();
+        }
+        synchronized (this.journalLock) {
+            this.compactor.compactNow(this.journal, allTasks.asCollection());
+        }
+    }
+
+    private void record(String record) throws DukeException {
+        if (this.batchRecords != null) {
+            this.batchRecords.add(record);
+        } else if (this.writeBehindQueue != null) {
+            this.writeBehindQueue.enqueue(record);
+        } else {
+            commit(Collections.singletonList(record));
+        }
+    }
 
+    private void commit(List<String> records) throws DukeException {
+        synchronized (this.journalLock) {
+            this.journal.appendAll(records);
+            this.compactor.maybeCompact(this.journal);
+        }
     }
 
     /**
      * Convenience method to load Task data from disk and re-created the TaskList object.
+     * The last snapshot is read first, after which any journal segment left behind by an
+     * unfinished compaction and then the journal are replayed on top of it. Anything
+     * after the last readable record of either is cut off.
      *
      * @return TaskList representing a collection of Tasks saved on disk
      * @throws DukeException thrown when no existing tasks were saved to file.
      */
-    public TaskList load() throws DukeException {
-        try {
-            Scanner sc = new Scanner(this.file);
-            ArrayList<Task> allStoredTasks = new ArrayList<Task>();
-            while (sc.hasNext()) {
-                Task t = generateSavedTask(sc.nextLine());
-                allStoredTasks.add(t);
-            }
-            return new TaskList(allStoredTasks);
-        } catch (FileNotFoundException e) {
+    public synchronized TaskList load() throws DukeException {
+        this.compactor.recover();
+        Journal compactingJournal = new Journal(this.compactor.getCompactingFile(), this.fsyncPolicy);
+        if (!this.file.exists() && !compactingJournal.exists() && !this.journal.exists()) {
             throw new DukeException("No existing tasks found!"
                 + "Unable to create file for saving!");
         }
+
+        TaskList allStoredTasks = readSnapshot(this.file);
+        //A record torn by a crash is cut off, as the records appended after it would never be replayed
+        if (compactingJournal.exists()) {
+            compactingJournal.replay(allStoredTasks);
+            compactingJournal.truncateToReplayed();
+        }
+        if (this.journal.exists()) {
+            this.journal.replay(allStoredTasks);
+            this.journal.truncateToReplayed();
+        }
+        return allStoredTasks;
+    }
+
+    /**
+     * Reads a snapshot file in either the pipe-delimited or the binary format. Binary
+     * snapshots are memory-mapped, and their Tasks are only created once they are used.
+     *
+     * @param snapshotFile File previously written by <code>writeSnapshot</code>
+     * @return TaskList holding the Tasks in the snapshot, or an empty TaskList if the file does not exist
+     * @throws DukeException thrown when the snapshot file could not be read.
+     */
+    TaskList readSnapshot(File snapshotFile) throws DukeException {
+        if (BinaryTaskFormat.isBinary(snapshotFile)) {
+            return new TaskList(MappedTaskArchive.open(snapshotFile));
+        }
+        return new TaskList(readTextSnapshot(snapshotFile));
+    }
+
+    /**
+     * Reads every Task stored in a snapshot file in the pipe-delimited format. Large files
+     * are parsed in parallel by a ParallelTaskLoader.
+     *
+     * @param snapshotFile File in the pipe-delimited format
+     * @return Tasks in the snapshot, or an empty list if the file does not exist
+     * @throws DukeException thrown when the snapshot file could not be read.
+     */
+    static ArrayList<Task> readTextSnapshot(File snapshotFile) throws DukeException {
+        if (!snapshotFile.exists()) {
+            return new ArrayList<Task>();
+        }
+        return new ParallelTaskLoader().load(snapshotFile);
+    }
+
+    /**
+     * Writes every Task into a snapshot file in this Storage's snapshot format, atomically
+     * replacing its previous contents. The Tasks are first written to a sibling temporary
+     * file, which is forced to disk before being renamed over the snapshot unless the
+     * FsyncPolicy never forces, so that the rename can never expose a torn snapshot.
+     *
+     * @param snapshotFile File to write the Tasks to
+     * @param allTasks     Tasks to be written, in order
+     * @throws DukeException thrown when error encountered saving to file.
+     */
+    void writeSnapshot(File snapshotFile, Collection<Task> allTasks) throws DukeException {
+        File f = snapshotFile.getAbsoluteFile();
+        File tmp = new File(f.getPath() + ".tmp");
+        try {
+            f.getParentFile().mkdirs();
+            if (this.isBinarySnapshot) {
+                BinaryTaskFormat.write(tmp, allTasks, this.fsyncPolicy);
+            } else {
+                try (ChannelLineWriter writer = new ChannelLineWriter(tmp, false)) {
+                    for (Task t : allTasks) {
+                        writer.writeNumberedLine(t.getId(), t.getStorageFormat());
+                    }
+                    writer.flush(this.fsyncPolicy.shouldForceSnapshot());
+                }
+            }
+            replaceAtomically(tmp, f, this.fsyncPolicy);
+        } catch (IOException e) {
+            throw new DukeException("Could not save to file!");
+        }
+    }
+
+    /**
+     * Renames <code>source</code> over <code>target</code> in a single step, so that readers
+     * see either the old or the new contents of <code>target</code> but never a mix of both.
+     * The rename itself is made durable by forcing the parent directory where the platform
+     * allows it.
+     *
+     * @param source      fully written File that replaces <code>target</code>
+     * @param target      File to be replaced
+     * @param fsyncPolicy FsyncPolicy deciding whether to force the rename to disk
+     * @throws IOException thrown when the file could not be renamed.
+     */
+    static void replaceAtomically(File source, File target, FsyncPolicy fsyncPolicy) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (fsyncPolicy.getMode() == FsyncPolicy.Mode.NEVER) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(target.getAbsoluteFile().getParentFile().toPath(),
+                StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            //Not every platform allows directories to be opened; the rename is still atomic there
+            return;
+        }
     }
 
     /**
-     * Private method used to convert from the String format in the disk data.
-     * into an actual Task object (ToDo, Event, Deadline)
+     * Converts a Task into the String format of the disk data, which is its ID followed
+     * by its storage format. Shared with Journal to encode added Tasks.
+     *
+     * @param t Task to be converted
+     * @return disk data (each field is seperated by the "|" character)
+     */
+    static String formatSavedTask(Task t) {
+        return t.getId() + " | " + t.getStorageFormat();
+    }
+
+    /**
+     * Converts from the String format in the disk data into an actual Task
+     * object (ToDo, Event, Deadline). Shared with Journal to decode added Tasks.
+     * Lines written before Tasks had IDs do not start with one; such Tasks are
+     * numbered in order when they are added to a TaskList.
      *
      * @param nextLine disk data (each field is seperated by the "|" character)
      * @return Task object
      * @throws DukeException re-thrown from underlying method calls.
      */
-    private Task generateSavedTask(String nextLine) throws DukeException {
+    static Task generateSavedTask(String nextLine) throws DukeException {
         String[] s = nextLine.split("\\|");
-        String command = s[0].trim();
+        long id = 0;
+        int first = 0;
+        if (isId(s[0].trim())) {
+            id = Long.parseLong(s[0].trim());
+            first = 1;
+        }
+        String command = s[first].trim();
         Task t = new Task("Uninitialised Task");
 
         //These 2 attributes are consistent across all 3 Task types (ToDo, Deadline, Event)
-        boolean isDone = s[1].trim().equals("1");
-        String description = s[2].trim();
+        boolean isDone = s[first + 1].trim().equals("1");
+        String description = s[first + 2].trim();
 
         switch (command) {
         case "T":
             t = new ToDo(description);
             break;
         case "E":
-            String startTime = s[3].trim();
-            String endTime = s[4].trim();
+            String startTime = s[first + 3].trim();
+            String endTime = s[first + 4].trim();
             t = new Event(description, startTime, endTime);
             break;
         case "D":
-            String deadline = s[3].trim();
+            String deadline = s[first + 3].trim();
             t = new Deadline(description, deadline);
             break;
         default:
@@ -121,7 +459,20 @@ public class Storage {
         if (isDone) {
             t.markAsDone();
         }
+        t.setId(id);
 
         return t;
     }
+
+    private static boolean isId(String field) {
+        if (field.isEmpty() || field.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < field.length(); i++) {
+            if (!Character.isDigit(field.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -6,84 +6,999 @@ import duke.tasks.Event;
 import duke.tasks.Task;
 import duke.tasks.ToDo;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntToLongFunction;
+import java.util.function.Predicate;
 
 /**
- * Wrapper class around an ArrayList meant to simplify the addition,
+ * Wrapper class around an array of Tasks meant to simplify the addition,
  * deletion and completion of tasks.
+ *
+ * <p>Every Task is given a stable ID when it is added. Tasks are looked up by ID through
+ * a primitive hash map from ID to array slot, so completing or deleting a Task takes
+ * constant time. Deleting a Task only leaves a tombstone in its slot; once tombstones
+ * outnumber the remaining Tasks, the array is compacted in one pass. Slots are always
+ * kept in the order the Tasks were added, which is also the order of their IDs.
+ *
+ * <p>A TaskList can be backed by a MappedTaskArchive, in which case the Tasks loaded from
+ * the archive are only created when they are accessed.
+ *
+ * <p>Task descriptions are indexed by a TokenIndex for <code>findWords</code> and by a
+ * TrigramIndex for <code>findSubstring</code> and <code>findFuzzy</code>. Each index is built,
+ * without holding up changes, on the first search that needs it and kept up to date on
+ * every addition and deletion afterwards, so a TaskList that is never searched does not
+ * pay for it. In the same way, the Deadlines that are not done yet are kept in a
+ * DeadlineIndex ordered by the time they are due, which answers <code>findDue</code>, and
+ * the Events are kept in an IntervalTree, which answers <code>findEvents</code>.
+ *
+ * <p>Changes can be grouped into a transaction, during which an undo log records enough
+ * to reverse each of them. Compaction is held off until the transaction ends, so that a
+ * deleted Task can be put back into its old slot.
+ *
+ * <p>Reads never wait for changes. The slots are split into fixed-size chunks, and every
+ * change publishes a new immutable version of the TaskList, copying only the chunks it
+ * overwrites. Iterating, counting and looking up Tasks read whichever version was
+ * published last, so a long listing goes on undisturbed while Tasks are added, and a Task
+ * that is done is replaced by a done copy instead of being changed in place. The changes
+ * made in a transaction are only published when it commits, although the thread running
+ * it sees them straight away. The indexes always describe the published version; searches
+ * by that thread check what they find against its own changes and add the Tasks it has
+ * added. The indexes are guarded by a lock that each change only holds to update them,
+ * and each search only holds to query one and copy out the IDs found; looking the Tasks
+ * up, checking them and scanning for queries that the indexes cannot narrow down are
+ * done on the captured version after the lock is released. Changes themselves must not
+ * be made by several threads at once.
  */
-public class TaskList {
-    ArrayList<Task> allTasks;
+public class TaskList implements Iterable<Task> {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+    private static final int WORD_INDEX = 0;
+    private static final int TRIGRAM_INDEX = 1;
+    private static final int DEADLINE_INDEX = 2;
+    private static final int EVENT_INDEX = 3;
+
+    private static final Comparator<Task> BY_ID = Comparator.comparingLong(Task::getId);
+    private static final Comparator<Task> BY_DUE_TIME = Comparator.<Task>comparingLong(t ->
+            ((Deadline) t).getDeadline().getEpochMinute()).thenComparingLong(Task::getId);
+    private static final Comparator<Task> BY_START_TIME = Comparator.<Task>comparingLong(t ->
+            ((Event) t).getStartTime().getEpochMinute()).thenComparingLong(Task::getId);
+
+    //Working copy of the slots, only accessed by the thread making a change
+    private Task[][] taskChunks;
+    private long[][] idChunks;
+    private int[] chunkGenerations;
+    private int outerGeneration;
+    private int generation;
+    private int[] archiveRecords;
+    private int slotCount;
+    private int size;
+    private long nextId = 1;
+    private LongIntHashMap idToSlot;
+    private MappedTaskArchive archive;
+    private ArrayList<Change> undoLog;
+    private long nextIdBeforeTransaction;
+    private volatile Thread transactionOwner;
+
+    private volatile Version published;
+    private final Object indexLock = new Object();
+    private final Object buildLock = new Object();
+    private ArrayList<Change> changesDuringBuild;
+    private TokenIndex wordIndex;
+    private TrigramIndex trigramIndex;
+    private DeadlineIndex deadlineIndex;
+    private IntervalTree eventIndex;
 
     /**
-     * Constructor.
+     * Constructor. Tasks that do not have an ID yet are numbered in order.
      *
      * @param allTasks a collection of Tasks
      */
     public TaskList(ArrayList<Task> allTasks) {
-        this.allTasks = allTasks;
+        allocateSlots(allTasks.size());
+        this.idToSlot = new LongIntHashMap(Math.max(allTasks.size(), MIN_CAPACITY));
+        for (Task t : allTasks) {
+            appendSlot(t, assignId(t));
+        }
+        publish();
+    }
+
+    /**
+     * Constructor. None of the Tasks in <code>archive</code> are created up front.
+     *
+     * @param archive MappedTaskArchive holding the Tasks to start with
+     */
+    public TaskList(MappedTaskArchive archive) {
+        int count = archive.size();
+        allocateSlots(count);
+        this.idToSlot = new LongIntHashMap(Math.max(count, MIN_CAPACITY));
+        this.archive = archive;
+        this.archiveRecords = new int[count];
+        for (int i = 0; i < count; i++) {
+            long id = archive.getId(i);
+            this.archiveRecords[i] = i;
+            appendSlot(null, id);
+            this.nextId = Math.max(this.nextId, id + 1);
+        }
+        publish();
     }
 
     /** Add a ToDo Task object to TaskList. */
     public Task addToDo(String taskDescription) {
-        Task t = new ToDo(taskDescription);
-        this.allTasks.add(t);
-        return t;
+        return add(new ToDo(taskDescription));
     }
 
     /** Add a Deadline Task object to TaskList. */
     public Task addDeadline(String taskDescription, String deadline) throws DukeException {
-        Task t = new Deadline(taskDescription, deadline);
-        this.allTasks.add(t);
-        return t;
+        return add(new Deadline(taskDescription, deadline));
     }
 
     /** Add an Event Task object to TaskList. */
     public Task addEvent(String taskDescription, String startTime, String endTime) throws DukeException {
-        Task t = new Event(taskDescription, startTime, endTime);
-        this.allTasks.add(t);
+        return add(new Event(taskDescription, startTime, endTime));
+    }
+
+    /**
+     * Add an existing Task object to the end of TaskList. The Task keeps its ID if it
+     * already has one (e.g. when re-created from disk), and is given the next ID otherwise.
+     */
+    public Task add(Task t) {
+        appendSlot(t, assignId(t));
+        record(new Change(Change.ADD, this.slotCount - 1, t));
         return t;
     }
 
-    /** Deletes a Task object from TaskList. */
-    public Task deleteTask(int taskNum) throws DukeException {
+    /** Deletes the Task object with ID <code>taskId</code> from TaskList. */
+    public Task deleteTask(long taskId) throws DukeException {
         //Returns removed Task
-        try {
-            Task t = this.allTasks.get(taskNum - 1);
-            this.allTasks.remove(taskNum - 1);
+        int slot = toSlot(taskId);
+        Task t = getSlot(slot);
+        this.idToSlot.remove(taskId);
+        //The ID is kept, negated, so that the slots stay ordered by ID
+        setSlot(slot, null, -taskId);
+        this.size--;
+        record(new Change(Change.DELETE, slot, t));
+        return t;
+    }
 
+    /**
+     * Marks the Task object with ID <code>taskId</code> in TaskList as complete. The Task
+     * is replaced by a done copy, which is returned, so that versions of the TaskList
+     * published earlier still hold the Task as it was.
+     */
+    public Task completeTask(long taskId) throws DukeException {
+        int slot = toSlot(taskId);
+        Task t = getSlot(slot);
+        if (t.getDoneStatus()) {
             return t;
-        } catch (IndexOutOfBoundsException e) {
-            throw new DukeException("The task number is invalid!");
         }
+        Task doneTask = t.copyAsDone();
+        setSlot(slot, doneTask, taskId);
+        record(new Change(Change.DONE, slot, t));
+        return doneTask;
     }
 
-    /** Marks a Task object in TaskList as complete. */
-    public Task completeTask(int taskNum) throws DukeException {
-        try {
-            Task t = this.allTasks.get(taskNum - 1); //Because storedTasks is zero-indexed
-            t.markAsDone();
-            return t;
-        } catch (IndexOutOfBoundsException e) {
+    /**
+     * Starts recording every addition, deletion and completion in an undo log, so that
+     * they can be undone together by <code>rollbackTransaction</code>. Used to run a
+     * batch of Commands as a whole. Until the transaction ends, the changes are only
+     * seen by the thread that started it.
+     *
+     * @throws DukeException thrown when a transaction has already been started.
+     */
+    public void beginTransaction() throws DukeException {
+        if (this.undoLog != null) {
+            throw new DukeException("A batch of commands is already running!");
+        }
+        this.undoLog = new ArrayList<Change>();
+        this.nextIdBeforeTransaction = this.nextId;
+        this.transactionOwner = Thread.currentThread();
+    }
+
+    /**
+     * Keeps every change made since <code>beginTransaction</code>, discards the undo log
+     * and publishes the changes all at once.
+     */
+    public void commitTransaction() {
+        assert this.undoLog != null : "No transaction has been started";
+        ArrayList<Change> changes = this.undoLog;
+        this.undoLog = null;
+        this.transactionOwner = null;
+        compactIfSparse();
+        synchronized (this.indexLock) {
+            for (Change change : changes) {
+                updateIndexes(change);
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Undoes every change made since <code>beginTransaction</code>, latest first, which
+     * leaves the TaskList and the IDs handed out next as they were before. As the changes
+     * were never published, the indexes are left as they are.
+     */
+    public void rollbackTransaction() {
+        assert this.undoLog != null : "No transaction has been started";
+        for (int i = this.undoLog.size() - 1; i >= 0; i--) {
+            Change change = this.undoLog.get(i);
+            Task t = change.task;
+            switch (change.kind) {
+            case Change.ADD:
+                //Later additions have been undone already, so the Task is in the last slot
+                this.idToSlot.remove(t.getId());
+                this.slotCount--;
+                setSlot(this.slotCount, null, 0);
+                this.size--;
+                break;
+            case Change.DELETE:
+                setSlot(change.slot, t, t.getId());
+                this.idToSlot.put(t.getId(), change.slot);
+                this.size++;
+                break;
+            default:
+                //Puts back the Task that was replaced by its done copy
+                setSlot(change.slot, t, t.getId());
+                break;
+            }
+        }
+        this.nextId = this.nextIdBeforeTransaction;
+        this.undoLog = null;
+        this.transactionOwner = null;
+    }
+
+    /**
+     * Returns the Task with a given ID, creating it from the backing archive if it
+     * has not been accessed before.
+     *
+     * @param taskId ID of the Task
+     * @return Task with ID <code>taskId</code>
+     * @throws DukeException thrown when there is no Task with ID <code>taskId</code>.
+     */
+    public Task getTask(long taskId) throws DukeException {
+        Version version = view();
+        int slot = version.findSlot(taskId);
+        if (slot < 0) {
             throw new DukeException("The task number is invalid!");
         }
+        return version.get(slot);
+    }
+
+    /**
+     * Finds the Tasks whose descriptions contain every word of <code>query</code>, ignoring
+     * case. Only the Tasks that match are created from the backing archive.
+     *
+     * @param query one or more words
+     * @return matching Tasks, in the order they were added
+     */
+    public ArrayList<Task> findWords(String query) {
+        return findWords(query, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the first few Tasks after a given ID whose descriptions contain every word of
+     * <code>query</code>, ignoring case.
+     *
+     * @param query    one or more words
+     * @param afterId  only Tasks with greater IDs are matched
+     * @param maxCount most Tasks returned
+     * @return matching Tasks, in the order they were added
+     */
+    public ArrayList<Task> findWords(String query, long afterId, int maxCount) {
+        ensureIndex(WORD_INDEX);
+        Version version;
+        long[] matchIds;
+        synchronized (this.indexLock) {
+            version = view();
+            matchIds = copyMatches(this.wordIndex.search(query), this.wordIndex::getMatch, afterId);
+        }
+        //The index holds exactly the matching Tasks, so those still there need no checking
+        ArrayList<Task> matchingTasks = findAll(version, matchIds, maxCount, t -> true);
+        List<String> words = TokenIndex.tokenize(query);
+        return addTransactionMatches(matchingTasks, version, afterId, maxCount, BY_ID,
+                t -> !words.isEmpty() && TokenIndex.tokenize(t.getDescription()).containsAll(words));
+    }
+
+    /**
+     * Finds the Tasks whose descriptions contain <code>query</code>, ignoring case. Only the
+     * candidates left by the trigram index are checked, unless <code>query</code> is shorter
+     * than 3 characters.
+     *
+     * @param query text to search for
+     * @return matching Tasks, in the order they were added
+     */
+    public ArrayList<Task> findSubstring(String query) {
+        return findSubstring(query, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the first few Tasks after a given ID whose descriptions contain <code>query</code>,
+     * ignoring case.
+     *
+     * @param query    text to search for
+     * @param afterId  only Tasks with greater IDs are matched
+     * @param maxCount most Tasks returned
+     * @return matching Tasks, in the order they were added
+     */
+    public ArrayList<Task> findSubstring(String query, long afterId, int maxCount) {
+        ensureIndex(TRIGRAM_INDEX);
+        Version version;
+        long[] matchIds;
+        synchronized (this.indexLock) {
+            version = view();
+            matchIds = copyMatches(this.trigramIndex.search(query), this.trigramIndex::getMatch, afterId);
+        }
+        Predicate<Task> test = t -> TrigramIndex.containsIgnoreCase(t.getDescription(), query);
+        if (matchIds == null) {
+            //The version scanned already holds the changes of a running transaction
+            return scan(version, afterId, maxCount, test);
+        }
+        return addTransactionMatches(findAll(version, matchIds, maxCount, test), version, afterId, maxCount,
+                BY_ID, test);
+    }
+
+    /**
+     * Finds the Tasks whose descriptions contain <code>query</code> with at most
+     * <code>maxEdits</code> typos, ignoring case. Only the candidates left by the trigram
+     * index are checked, unless <code>query</code> is too short for the index to rule
+     * any Task out.
+     *
+     * @param query    text to search for
+     * @param maxEdits maximum number of characters inserted, deleted or substituted
+     * @return matching Tasks, in the order they were added
+     */
+    public ArrayList<Task> findFuzzy(String query, int maxEdits) {
+        return findFuzzy(query, maxEdits, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the first few Tasks after a given ID whose descriptions contain <code>query</code>
+     * with at most <code>maxEdits</code> typos, ignoring case.
+     *
+     * @param query    text to search for
+     * @param maxEdits maximum number of characters inserted, deleted or substituted
+     * @param afterId  only Tasks with greater IDs are matched
+     * @param maxCount most Tasks returned
+     * @return matching Tasks, in the order they were added
+     */
+    public ArrayList<Task> findFuzzy(String query, int maxEdits, long afterId, int maxCount) {
+        ensureIndex(TRIGRAM_INDEX);
+        Version version;
+        long[] matchIds;
+        synchronized (this.indexLock) {
+            version = view();
+            int count = this.trigramIndex.searchFuzzy(query, maxEdits);
+            matchIds = copyMatches(count, this.trigramIndex::getMatch, afterId);
+        }
+        Predicate<Task> test = t -> TrigramIndex.isWithinEditDistance(t.getDescription(), query, maxEdits);
+        if (matchIds == null) {
+            //The version scanned already holds the changes of a running transaction
+            return scan(version, afterId, maxCount, test);
+        }
+        return addTransactionMatches(findAll(version, matchIds, maxCount, test), version, afterId, maxCount,
+                BY_ID, test);
+    }
+
+    /**
+     * Finds the Deadlines that are not done yet and are due within a range of times.
+     *
+     * @param fromMinute earliest epoch minute, inclusive
+     * @param toMinute   latest epoch minute, inclusive
+     * @return matching Deadlines, in the order they are due
+     */
+    public ArrayList<Task> findDue(long fromMinute, long toMinute) {
+        ensureIndex(DEADLINE_INDEX);
+        Version version;
+        long[] matchIds;
+        synchronized (this.indexLock) {
+            version = view();
+            matchIds = copyMatches(this.deadlineIndex.search(fromMinute, toMinute), this.deadlineIndex::getMatch, 0);
+        }
+        //Deadlines done in a running transaction are still in the index
+        ArrayList<Task> dueTasks = findAll(version, matchIds, Integer.MAX_VALUE, t -> !t.getDoneStatus());
+        return addTransactionMatches(dueTasks, version, 0, Integer.MAX_VALUE, BY_DUE_TIME,
+                t -> isOutstandingDeadline(t)
+                        && isWithin(((Deadline) t).getDeadline().getEpochMinute(), fromMinute, toMinute));
+    }
+
+    /**
+     * Finds the Events that are on at any time within a window. Passing the same time
+     * twice finds the Events that are on at that time.
+     *
+     * @param fromMinute start of the window as an epoch minute, inclusive
+     * @param toMinute   end of the window as an epoch minute, inclusive
+     * @return matching Events, in order of their start times
+     */
+    public ArrayList<Task> findEvents(long fromMinute, long toMinute) {
+        ensureIndex(EVENT_INDEX);
+        Version version;
+        long[] matchIds;
+        synchronized (this.indexLock) {
+            version = view();
+            matchIds = copyMatches(this.eventIndex.search(fromMinute, toMinute), this.eventIndex::getMatch, 0);
+        }
+        ArrayList<Task> events = findAll(version, matchIds, Integer.MAX_VALUE, t -> true);
+        return addTransactionMatches(events, version, 0, Integer.MAX_VALUE, BY_START_TIME,
+                t -> t instanceof Event
+                        && ((Event) t).getStartTime().getEpochMinute() <= toMinute
+                        && ((Event) t).getEndTime().getEpochMinute() >= fromMinute);
     }
 
     /**
-     * Returns the size of the underlying ArrayList.
+     * Returns the size of the TaskList.
      *
      * @return an integer representing the number of Tasks in the TaskList
      */
     public int size() {
-        return this.allTasks.size();
+        return view().size;
+    }
+
+    /**
+     * Iterates over the Tasks in the order they were added, as they were when the
+     * iteration started. Tasks are created from the backing archive as they are reached.
+     *
+     * @return Iterator over the Tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return view().iterator();
     }
 
     /**
-     * Returns the underlying ArrayList of Tasks.
+     * Iterates over the Tasks with IDs greater than <code>afterId</code>, leaving out the
+     * first <code>skipCount</code> of them, as they were when the iteration started. The
+     * start is found by binary search, and the Tasks left out are never created, so the
+     * first Task is reached in the same time however many Tasks come before it.
      *
-     * @return underlying ArrayList of Tasks
+     * @param afterId   only Tasks with greater IDs are iterated over
+     * @param skipCount number of Tasks after <code>afterId</code> to leave out
+     * @return Iterator over the Tasks
+     */
+    public Iterator<Task> iteratorAfter(long afterId, int skipCount) {
+        Version version = view();
+        SlotIterator iterator = new SlotIterator(version, version.findSlotAfter(afterId));
+        iterator.skip(skipCount);
+        return iterator;
+    }
+
+    /**
+     * Returns a read-only snapshot of the Tasks, which does not change as the TaskList
+     * changes afterwards. Taking the snapshot does not copy anything.
+     *
+     * @return Collection view of the Tasks, in the order they were added
+     */
+    public Collection<Task> asCollection() {
+        Version version = view();
+        return new AbstractCollection<Task>() {
+            @Override
+            public Iterator<Task> iterator() {
+                return version.iterator();
+            }
+
+            @Override
+            public int size() {
+                return version.size;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the Tasks in an ArrayList. Every Task is created from the backing
+     * archive if necessary.
+     *
+     * @return ArrayList of Tasks
      */
     public ArrayList<Task> getArrayList() {
-        return this.allTasks;
+        Version version = view();
+        ArrayList<Task> allTasksArrList = new ArrayList<Task>(version.size);
+        for (Task t : version) {
+            allTasksArrList.add(t);
+        }
+        return allTasksArrList;
+    }
+
+    /** Returns the version that the calling thread reads. */
+    private Version view() {
+        if (this.transactionOwner == Thread.currentThread()) {
+            return new Version(this.taskChunks, this.idChunks, this.archive, this.archiveRecords,
+                    this.slotCount, this.size);
+        }
+        return this.published;
+    }
+
+    /**
+     * Makes the current slots the version read by every thread. Chunks are shared with
+     * the new version from here on, so each is copied before it is next overwritten.
+     */
+    private void publish() {
+        this.published = new Version(this.taskChunks, this.idChunks, this.archive, this.archiveRecords,
+                this.slotCount, this.size);
+        this.generation++;
+    }
+
+    /** Records a change in the undo log, or applies it to the indexes and publishes it. */
+    private void record(Change change) {
+        if (this.undoLog != null) {
+            this.undoLog.add(change);
+            return;
+        }
+        if (change.kind == Change.DELETE) {
+            compactIfSparse();
+        }
+        synchronized (this.indexLock) {
+            updateIndexes(change);
+            publish();
+        }
+    }
+
+    /** Applies a change to the indexes, noting it down too if an index is being built. */
+    private void updateIndexes(Change change) {
+        updateIndexes(change, this.wordIndex, this.trigramIndex, this.deadlineIndex, this.eventIndex);
+        if (this.changesDuringBuild != null) {
+            this.changesDuringBuild.add(change);
+        }
+    }
+
+    /** Applies a change to each of the given indexes that is not null. */
+    private static void updateIndexes(Change change, TokenIndex wordIndex, TrigramIndex trigramIndex,
+            DeadlineIndex deadlineIndex, IntervalTree eventIndex) {
+        Task t = change.task;
+        switch (change.kind) {
+        case Change.ADD:
+            addToIndexes(t, wordIndex, trigramIndex, deadlineIndex, eventIndex);
+            break;
+        case Change.DELETE:
+            if (wordIndex != null) {
+                wordIndex.remove(t.getId(), t.getDescription());
+            }
+            if (trigramIndex != null) {
+                trigramIndex.remove(t.getId(), t.getDescription());
+            }
+            if (deadlineIndex != null && isOutstandingDeadline(t)) {
+                deadlineIndex.remove(((Deadline) t).getDeadline().getEpochMinute(), t.getId());
+            }
+            if (eventIndex != null && t instanceof Event) {
+                eventIndex.remove(((Event) t).getStartTime().getEpochMinute(), t.getId());
+            }
+            break;
+        default:
+            //The Task is the one from before it was done
+            if (deadlineIndex != null && isOutstandingDeadline(t)) {
+                deadlineIndex.remove(((Deadline) t).getDeadline().getEpochMinute(), t.getId());
+            }
+            break;
+        }
+    }
+
+    private static void addToIndexes(Task t, TokenIndex wordIndex, TrigramIndex trigramIndex,
+            DeadlineIndex deadlineIndex, IntervalTree eventIndex) {
+        if (wordIndex != null) {
+            wordIndex.add(t.getId(), t.getDescription());
+        }
+        if (trigramIndex != null) {
+            trigramIndex.add(t.getId(), t.getDescription());
+        }
+        if (deadlineIndex != null && isOutstandingDeadline(t)) {
+            deadlineIndex.add(((Deadline) t).getDeadline().getEpochMinute(), t.getId());
+        }
+        if (eventIndex != null && t instanceof Event) {
+            Event e = (Event) t;
+            eventIndex.add(e.getStartTime().getEpochMinute(), e.getEndTime().getEpochMinute(), e.getId());
+        }
+    }
+
+    private static boolean isOutstandingDeadline(Task t) {
+        return t instanceof Deadline && !t.getDoneStatus();
+    }
+
+    /**
+     * Builds an index on first use. The published version is captured and the index built
+     * from it without holding indexLock, so that changes and searches of the other indexes
+     * go on meanwhile; the changes published during the build are then applied to the new
+     * index before it is put in place. Only one index is built at a time.
+     *
+     * @param kind one of <code>WORD_INDEX</code>, <code>TRIGRAM_INDEX</code>,
+     *             <code>DEADLINE_INDEX</code> and <code>EVENT_INDEX</code>
+     */
+    private void ensureIndex(int kind) {
+        synchronized (this.indexLock) {
+            if (hasIndex(kind)) {
+                return;
+            }
+        }
+        synchronized (this.buildLock) {
+            Version version;
+            synchronized (this.indexLock) {
+                if (hasIndex(kind)) {
+                    //Built by another search while this one was waiting
+                    return;
+                }
+                version = this.published;
+                this.changesDuringBuild = new ArrayList<Change>();
+            }
+            TokenIndex words = kind == WORD_INDEX ? new TokenIndex() : null;
+            TrigramIndex trigrams = kind == TRIGRAM_INDEX ? new TrigramIndex() : null;
+            DeadlineIndex deadlines = kind == DEADLINE_INDEX ? new DeadlineIndex() : null;
+            IntervalTree events = kind == EVENT_INDEX ? new IntervalTree() : null;
+            try {
+                for (Task t : version) {
+                    addToIndexes(t, words, trigrams, deadlines, events);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this.indexLock) {
+                    this.changesDuringBuild = null;
+                }
+                throw e;
+            }
+            synchronized (this.indexLock) {
+                for (Change change : this.changesDuringBuild) {
+                    updateIndexes(change, words, trigrams, deadlines, events);
+                }
+                this.changesDuringBuild = null;
+                this.wordIndex = words != null ? words : this.wordIndex;
+                this.trigramIndex = trigrams != null ? trigrams : this.trigramIndex;
+                this.deadlineIndex = deadlines != null ? deadlines : this.deadlineIndex;
+                this.eventIndex = events != null ? events : this.eventIndex;
+            }
+        }
+    }
+
+    private boolean hasIndex(int kind) {
+        switch (kind) {
+        case WORD_INDEX:
+            return this.wordIndex != null;
+        case TRIGRAM_INDEX:
+            return this.trigramIndex != null;
+        case DEADLINE_INDEX:
+            return this.deadlineIndex != null;
+        default:
+            return this.eventIndex != null;
+        }
+    }
+
+    /**
+     * Copies the IDs found by the last search of an index out of its reused buffer, so that
+     * they can be looked up after indexLock is released.
+     *
+     * @param count    number of matches, or a negative number if the index could not be used
+     * @param getMatch returns the <code>i</code>-th match
+     * @param afterId  only IDs greater than this are copied; the matches must be in ascending
+     *                 order of ID unless it is 0
+     * @return IDs found, or null if <code>count</code> is negative
+     */
+    private static long[] copyMatches(int count, IntToLongFunction getMatch, long afterId) {
+        if (count < 0) {
+            return null;
+        }
+        int i = 0;
+        while (i < count && getMatch.applyAsLong(i) <= afterId) {
+            i++;
+        }
+        long[] matchIds = new long[count - i];
+        for (int j = 0; j < matchIds.length; j++) {
+            matchIds[j] = getMatch.applyAsLong(i + j);
+        }
+        return matchIds;
+    }
+
+    /**
+     * Looks up the Tasks found in an index in a version, in the order they were found,
+     * leaving out those that are not in the version or fail <code>test</code>.
+     */
+    private static ArrayList<Task> findAll(Version version, long[] matchIds, int maxCount, Predicate<Task> test) {
+        ArrayList<Task> matchingTasks = new ArrayList<Task>(Math.min(matchIds.length, maxCount));
+        for (int i = 0; i < matchIds.length && matchingTasks.size() < maxCount; i++) {
+            Task t = version.find(matchIds[i]);
+            if (t != null && test.test(t)) {
+                matchingTasks.add(t);
+            }
+        }
+        return matchingTasks;
+    }
+
+    /** Checks every Task after <code>afterId</code> in a version, for queries the indexes cannot narrow down. */
+    private static ArrayList<Task> scan(Version version, long afterId, int maxCount, Predicate<Task> test) {
+        ArrayList<Task> matchingTasks = new ArrayList<Task>();
+        Iterator<Task> candidates = new SlotIterator(version, version.findSlotAfter(afterId));
+        while (candidates.hasNext() && matchingTasks.size() < maxCount) {
+            Task t = candidates.next();
+            if (test.test(t)) {
+                matchingTasks.add(t);
+            }
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Adds the Tasks added in the running transaction that pass <code>test</code> to the
+     * Tasks found in the indexes, when called by the thread running the transaction. The
+     * indexes only describe the published version, so these Tasks are not in them yet.
+     *
+     * @param matches  Tasks found in the indexes
+     * @param version  version read by the calling thread
+     * @param afterId  only Tasks with greater IDs are added
+     * @param maxCount most Tasks returned
+     * @param order    order of the returned Tasks
+     * @param test     whether a Task matches
+     * @return <code>matches</code>, with the Tasks added in the transaction
+     */
+    private ArrayList<Task> addTransactionMatches(ArrayList<Task> matches, Version version, long afterId,
+            int maxCount, Comparator<Task> order, Predicate<Task> test) {
+        if (this.transactionOwner != Thread.currentThread()) {
+            return matches;
+        }
+        int foundCount = matches.size();
+        for (Change change : this.undoLog) {
+            long id = change.task.getId();
+            Task t = change.kind == Change.ADD && id > afterId ? version.find(id) : null;
+            if (t != null && test.test(t)) {
+                matches.add(t);
+            }
+        }
+        if (matches.size() > foundCount) {
+            matches.sort(order);
+            if (matches.size() > maxCount) {
+                matches.subList(maxCount, matches.size()).clear();
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isWithin(long minute, long fromMinute, long toMinute) {
+        return minute >= fromMinute && minute <= toMinute;
+    }
+
+    private long assignId(Task t) {
+        if (t.getId() == 0) {
+            t.setId(this.nextId);
+        }
+        this.nextId = Math.max(this.nextId, t.getId() + 1);
+        return t.getId();
+    }
+
+    private int toSlot(long taskId) throws DukeException {
+        int slot = taskId <= 0 ? -1 : this.idToSlot.get(taskId);
+        if (slot < 0) {
+            throw new DukeException("The task number is invalid!");
+        }
+        return slot;
+    }
+
+    private Task getSlot(int slot) {
+        Task t = this.taskChunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+        if (t == null) {
+            t = this.archive.get(this.archiveRecords[slot]);
+        }
+        return t;
+    }
+
+    private void allocateSlots(int capacity) {
+        int chunkCount = Math.max((capacity + CHUNK_MASK) >>> CHUNK_BITS, 1);
+        this.taskChunks = new Task[chunkCount][];
+        this.idChunks = new long[chunkCount][];
+        this.chunkGenerations = new int[chunkCount];
+        this.outerGeneration = this.generation;
+        this.slotCount = 0;
+    }
+
+    /** Fills the slot after the last one, which no published version can be reading. */
+    private void appendSlot(Task t, long id) {
+        int chunk = this.slotCount >>> CHUNK_BITS;
+        if (chunk == this.taskChunks.length) {
+            this.taskChunks = Arrays.copyOf(this.taskChunks, chunk * 2);
+            this.idChunks = Arrays.copyOf(this.idChunks, chunk * 2);
+            this.chunkGenerations = Arrays.copyOf(this.chunkGenerations, chunk * 2);
+            this.outerGeneration = this.generation;
+        }
+        if (this.taskChunks[chunk] == null) {
+            this.taskChunks[chunk] = new Task[CHUNK_SIZE];
+            this.idChunks[chunk] = new long[CHUNK_SIZE];
+            this.chunkGenerations[chunk] = this.generation;
+        }
+        this.taskChunks[chunk][this.slotCount & CHUNK_MASK] = t;
+        this.idChunks[chunk][this.slotCount & CHUNK_MASK] = id;
+        this.idToSlot.put(id, this.slotCount);
+        this.slotCount++;
+        this.size++;
+    }
+
+    /** Overwrites a slot, first copying its chunk if a published version may be reading it. */
+    private void setSlot(int slot, Task t, long id) {
+        int chunk = slot >>> CHUNK_BITS;
+        if (this.chunkGenerations[chunk] != this.generation && slot < this.published.slotCount) {
+            if (this.outerGeneration != this.generation) {
+                this.taskChunks = this.taskChunks.clone();
+                this.idChunks = this.idChunks.clone();
+                this.outerGeneration = this.generation;
+            }
+            this.taskChunks[chunk] = this.taskChunks[chunk].clone();
+            this.idChunks[chunk] = this.idChunks[chunk].clone();
+            this.chunkGenerations[chunk] = this.generation;
+        }
+        this.taskChunks[chunk][slot & CHUNK_MASK] = t;
+        this.idChunks[chunk][slot & CHUNK_MASK] = id;
+    }
+
+    private void compactIfSparse() {
+        int tombstones = this.slotCount - this.size;
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones > this.size) {
+            compact();
+        }
+    }
+
+    /**
+     * Removes every tombstone, moving the remaining Tasks up while keeping their order.
+     * The Tasks are moved into new chunks, leaving the published versions as they are.
+     */
+    private void compact() {
+        Task[][] oldTaskChunks = this.taskChunks;
+        long[][] oldIdChunks = this.idChunks;
+        int[] oldArchiveRecords = this.archiveRecords;
+        int oldSlotCount = this.slotCount;
+        int liveCount = this.size;
+        allocateSlots(liveCount);
+        if (oldArchiveRecords != null) {
+            this.archiveRecords = new int[Math.min(oldArchiveRecords.length, liveCount)];
+        }
+        this.size = 0;
+        for (int slot = 0; slot < oldSlotCount; slot++) {
+            long id = oldIdChunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+            if (id <= 0) {
+                continue;
+            }
+            Task t = oldTaskChunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+            if (t == null) {
+                //Only Tasks still in the backing archive have no object yet
+                this.archiveRecords[this.slotCount] = oldArchiveRecords[slot];
+            }
+            appendSlot(t, id);
+        }
+    }
+
+    /** Change to the TaskList, as recorded in the undo log of a transaction. */
+    private static class Change {
+        private static final int ADD = 0;
+        private static final int DELETE = 1;
+        private static final int DONE = 2;
+
+        private final int kind;
+        private final int slot;
+        private final Task task;
+
+        Change(int kind, int slot, Task task) {
+            this.kind = kind;
+            this.slot = slot;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Immutable version of the slots. The chunks may be shared with later versions, but
+     * none of the slots below <code>slotCount</code> are ever written to again.
+     */
+    private static class Version implements Iterable<Task> {
+        private final Task[][] taskChunks;
+        private final long[][] idChunks;
+        private final MappedTaskArchive archive;
+        private final int[] archiveRecords;
+        private final int slotCount;
+        private final int size;
+
+        Version(Task[][] taskChunks, long[][] idChunks, MappedTaskArchive archive, int[] archiveRecords,
+                int slotCount, int size) {
+            this.taskChunks = taskChunks;
+            this.idChunks = idChunks;
+            this.archive = archive;
+            this.archiveRecords = archiveRecords;
+            this.slotCount = slotCount;
+            this.size = size;
+        }
+
+        long getId(int slot) {
+            return this.idChunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+        }
+
+        Task get(int slot) {
+            Task t = this.taskChunks[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+            if (t == null) {
+                //Kept by the archive rather than in the chunk, which may be read by other threads meanwhile
+                t = this.archive.get(this.archiveRecords[slot]);
+            }
+            return t;
+        }
+
+        /** Binary search over the slots, which are ordered by ID, tombstones included. */
+        int findSlot(long taskId) {
+            int low = 0;
+            int high = this.slotCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long id = getId(mid);
+                long absoluteId = Math.abs(id);
+                if (absoluteId < taskId) {
+                    low = mid + 1;
+                } else if (absoluteId > taskId) {
+                    high = mid - 1;
+                } else {
+                    return id > 0 ? mid : -1;
+                }
+            }
+            return -1;
+        }
+
+        /** Returns the Task with a given ID, or null if there is none. */
+        Task find(long taskId) {
+            int slot = findSlot(taskId);
+            return slot < 0 ? null : get(slot);
+        }
+
+        /** Returns the first slot, tombstone or not, whose ID is greater than <code>taskId</code>. */
+        int findSlotAfter(long taskId) {
+            int low = 0;
+            int high = this.slotCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (Math.abs(getId(mid)) <= taskId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new SlotIterator(this, 0);
+        }
+    }
+
+    /** Iterates over the live slots of a version, skipping tombstones. */
+    private static class SlotIterator implements Iterator<Task> {
+        private final Version version;
+        private int nextSlot;
+
+        SlotIterator(Version version, int startSlot) {
+            this.version = version;
+            this.nextSlot = skipTombstones(startSlot);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextSlot < this.version.slotCount;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int slot = this.nextSlot;
+            this.nextSlot = skipTombstones(slot + 1);
+            return this.version.get(slot);
+        }
+
+        /** Moves past up to <code>count</code> Tasks without creating them. */
+        void skip(int count) {
+            for (int i = 0; i < count && hasNext(); i++) {
+                this.nextSlot = skipTombstones(this.nextSlot + 1);
+            }
+        }
+
+        private int skipTombstones(int slot) {
+            while (slot < this.version.slotCount && this.version.getId(slot) <= 0) {
+                slot++;
+            }
+            return slot;
+        }
     }
 }
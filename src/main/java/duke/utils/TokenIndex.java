@@ -0,0 +1,133 @@
+package duke.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Inverted index from the words in Task descriptions to the IDs of the Tasks containing
+ * them. Words are runs of letters and digits, compared case-insensitively. Every word maps
+ * to a PostingList holding the matching IDs in ascending order.
+ *
+ * <p>A query of several words is answered by intersecting their posting lists, starting
+ * from the shortest one and galloping through the others, so its cost depends on the
+ * number of matches rather than on the number of Tasks.
+ */
+public class TokenIndex {
+    private static final int MIN_POSTINGS = 4;
+
+    private HashMap<String, PostingList> postings = new HashMap<String, PostingList>();
+    private long[] matches = new long[MIN_POSTINGS];
+    private PostingList[] queryLists = new PostingList[MIN_POSTINGS];
+    private int[] cursors = new int[MIN_POSTINGS];
+
+    /**
+     * Indexes every word of <code>description</code> under <code>taskId</code>.
+     *
+     * @param taskId      ID of the Task
+     * @param description description of the Task
+     */
+    public void add(long taskId, String description) {
+        for (String word : tokenize(description)) {
+            PostingList postingList = this.postings.get(word);
+            if (postingList == null) {
+                postingList = new PostingList();
+                this.postings.put(word, postingList);
+            }
+            postingList.add(taskId);
+        }
+    }
+
+    /**
+     * Removes <code>taskId</code> from the posting lists of every word of <code>description</code>.
+     *
+     * @param taskId      ID of the Task
+     * @param description description the Task was indexed with
+     */
+    public void remove(long taskId, String description) {
+        for (String word : tokenize(description)) {
+            PostingList postingList = this.postings.get(word);
+            if (postingList != null && postingList.remove(taskId) && postingList.size() == 0) {
+                this.postings.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Finds the Tasks whose descriptions contain every word of <code>query</code>. The
+     * matching IDs are written into an internal buffer that is reused by the next search,
+     * so they must be read through <code>getMatch</code> before searching again. Apart from
+     * splitting the query into words, searching does not allocate once the buffers have
+     * grown to fit.
+     *
+     * @param query one or more words
+     * @return number of matching Tasks; 0 if <code>query</code> contains no words
+     */
+    public int search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return 0;
+        }
+        int listCount = words.size();
+        if (this.queryLists.length < listCount) {
+            this.queryLists = new PostingList[listCount];
+            this.cursors = new int[listCount];
+        }
+        PostingList[] lists = this.queryLists;
+        for (int i = 0; i < listCount; i++) {
+            lists[i] = this.postings.get(words.get(i));
+            if (lists[i] == null) {
+                Arrays.fill(lists, 0, i, null);
+                return 0;
+            }
+            if (this.matches.length < lists[i].size()) {
+                this.matches = new long[lists[i].size()];
+            }
+        }
+        int count = PostingList.intersect(lists, listCount, this.cursors, this.matches);
+        Arrays.fill(lists, 0, listCount, null);
+        return count;
+    }
+
+    /**
+     * Returns an ID found by the last search.
+     *
+     * @param i index of the match, smaller than the count returned by <code>search</code>
+     * @return ID of the <code>i</code>-th matching Task, in ascending order
+     */
+    public long getMatch(int i) {
+        return this.matches[i];
+    }
+
+    /**
+     * Splits <code>text</code> into its distinct lower-case words.
+     *
+     * @param text text to be split
+     * @return words in <code>text</code>, without duplicates
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = Collections.emptyList();
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                String word = text.substring(start, i).toLowerCase();
+                if (words.isEmpty()) {
+                    words = new ArrayList<String>();
+                }
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+}
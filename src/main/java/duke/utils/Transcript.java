@@ -0,0 +1,247 @@
+package duke.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chat history of a session, as shown by the GUI. Only the latest entries are kept in
+ * memory, up to a number of entries and of characters. Older entries are spilled to a
+ * temporary file, along with the position at which each one starts, and are read back
+ * when they are asked for, so memory use stays the same however long the session runs.
+ *
+ * <p>A Transcript is meant to be used by a single thread, i.e. the JavaFX application thread.
+ */
+public class Transcript {
+    private static final int DEFAULT_MAX_ENTRIES = 200;
+    private static final int DEFAULT_MAX_CHARS = 1 << 20;
+    private static final int READ_CACHE_SIZE = 64;
+    private static final Entry LOST_ENTRY = new Entry(false, "(This message could not be kept on disk.)");
+
+    private final int maxEntries;
+    private final int maxChars;
+    private final Entry[] recentEntries;
+    private int size;
+    private int spilledCount;
+    private int readableSpilledCount;
+    private long recentChars;
+    private boolean isSpillFailed;
+    private File dataFile;
+    private File offsetFile;
+    private RandomAccessFile data;
+    private RandomAccessFile offsets;
+    private final Map<Integer, Entry> readCache = new LinkedHashMap<Integer, Entry>(READ_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Transcript.Entry> eldest) {
+            return size() > READ_CACHE_SIZE;
+        }
+    };
+
+    /** Constructor. Keeps the default number of entries and characters in memory. */
+    public Transcript() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_CHARS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries most entries kept in memory
+     * @param maxChars   most characters kept in memory, although the latest entry is always kept
+     */
+    public Transcript(int maxEntries, int maxChars) {
+        assert maxEntries > 0 : "At least one entry must be kept in memory";
+        this.maxEntries = maxEntries;
+        this.maxChars = maxChars;
+        this.recentEntries = new Entry[maxEntries];
+    }
+
+    /**
+     * Adds an entry to the end of the Transcript, spilling the oldest entries in memory
+     * to disk if there are too many.
+     *
+     * @param isUser true if the entry was typed by the user, false if it is Duke's response
+     * @param text   text of the entry
+     * @return index of the new entry
+     */
+    public int add(boolean isUser, String text) {
+        if (this.size - this.spilledCount == this.maxEntries) {
+            spillOldest();
+        }
+        this.recentEntries[this.size % this.maxEntries] = new Entry(isUser, text);
+        this.recentChars += text.length();
+        this.size++;
+        while (this.recentChars > this.maxChars && this.size - this.spilledCount > 1) {
+            spillOldest();
+        }
+        return this.size - 1;
+    }
+
+    /**
+     * Returns the number of entries, including those spilled to disk.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns an entry, reading it back from disk if it has been spilled. An entry that
+     * could not be written to or read from disk is replaced by a note saying so.
+     *
+     * @param index index of the entry, counting from the first entry added
+     * @return entry at <code>index</code>
+     */
+    public Entry get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        if (index >= this.spilledCount) {
+            return this.recentEntries[index % this.maxEntries];
+        }
+        if (index >= this.readableSpilledCount) {
+            return LOST_ENTRY;
+        }
+        Entry entry = this.readCache.get(index);
+        if (entry == null) {
+            entry = readSpilled(index);
+            this.readCache.put(index, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the number of entries that have been spilled to disk.
+     *
+     * @return number of entries no longer held in memory
+     */
+    public int getSpilledCount() {
+        return this.spilledCount;
+    }
+
+    /** Closes and deletes the files holding the spilled entries, which are lost from then on. */
+    public void close() {
+        closeFiles();
+        this.isSpillFailed = true;
+        this.readableSpilledCount = 0;
+        this.readCache.clear();
+    }
+
+    private void spillOldest() {
+        int slot = this.spilledCount % this.maxEntries;
+        Entry entry = this.recentEntries[slot];
+        this.recentEntries[slot] = null;
+        this.recentChars -= entry.text.length();
+        if (!this.isSpillFailed) {
+            try {
+                writeSpilled(entry);
+                this.readableSpilledCount++;
+            } catch (IOException e) {
+                //Earlier and later entries are dropped too, as the files can no longer be trusted
+                close();
+            }
+        }
+        this.spilledCount++;
+    }
+
+    private void writeSpilled(Entry entry) throws IOException {
+        if (this.data == null) {
+            this.dataFile = File.createTempFile("duke-transcript", ".dat");
+            this.offsetFile = File.createTempFile("duke-transcript", ".idx");
+            this.dataFile.deleteOnExit();
+            this.offsetFile.deleteOnExit();
+            this.data = new RandomAccessFile(this.dataFile, "rw");
+            this.offsets = new RandomAccessFile(this.offsetFile, "rw");
+        }
+        byte[] text = entry.text.getBytes(StandardCharsets.UTF_8);
+        long offset = this.data.length();
+        byte[] record = new byte[5 + text.length];
+        record[0] = (byte) (entry.isUser ? 1 : 0);
+        record[1] = (byte) (text.length >>> 24);
+        record[2] = (byte) (text.length >>> 16);
+        record[3] = (byte) (text.length >>> 8);
+        record[4] = (byte) text.length;
+        System.arraycopy(text, 0, record, 5, text.length);
+        this.data.seek(offset);
+        this.data.write(record);
+        this.offsets.seek((long) this.readableSpilledCount * 8);
+        this.offsets.writeLong(offset);
+    }
+
+    private Entry readSpilled(int index) {
+        if (this.data == null) {
+            return LOST_ENTRY;
+        }
+        try {
+            this.offsets.seek((long) index * 8);
+            this.data.seek(this.offsets.readLong());
+            boolean isUser = this.data.readByte() != 0;
+            byte[] text = new byte[this.data.readInt()];
+            this.data.readFully(text);
+            return new Entry(isUser, new String(text, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return LOST_ENTRY;
+        }
+    }
+
+    private void closeFiles() {
+        closeQuietly(this.data);
+        closeQuietly(this.offsets);
+        this.data = null;
+        this.offsets = null;
+        if (this.dataFile != null) {
+            this.dataFile.delete();
+        }
+        if (this.offsetFile != null) {
+            this.offsetFile.delete();
+        }
+    }
+
+    private static void closeQuietly(RandomAccessFile file) {
+        try {
+            if (file != null) {
+                file.close();
+            }
+        } catch (IOException e) {
+            //The file is deleted afterwards regardless
+        }
+    }
+
+    /** A single message in the Transcript. */
+    public static class Entry {
+        private final boolean isUser;
+        private final String text;
+
+        /**
+         * Constructor.
+         *
+         * @param isUser true if the message was typed by the user
+         * @param text   text of the message
+         */
+        public Entry(boolean isUser, String text) {
+            this.isUser = isUser;
+            this.text = text;
+        }
+
+        /**
+         * Tells whether the message was typed by the user rather than sent by Duke.
+         *
+         * @return true if the user typed the message
+         */
+        public boolean isUser() {
+            return this.isUser;
+        }
+
+        /**
+         * Getter method for the text of the message.
+         *
+         * @return text of the message
+         */
+        public String getText() {
+            return this.text;
+        }
+    }
+}
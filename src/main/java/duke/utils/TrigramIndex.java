@@ -0,0 +1,257 @@
+package duke.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Index from every run of three consecutive characters (trigram) in the Task descriptions
+ * to the IDs of the Tasks containing it, used to answer substring and fuzzy queries
+ * without looking at every description. Descriptions and queries are lower-cased first.
+ *
+ * <p>The index only narrows a query down to candidates, which have to be verified against
+ * their descriptions with <code>containsIgnoreCase</code> or <code>isWithinEditDistance</code>:
+ * <ul>
+ *     <li>A description containing the query contains every trigram of the query, so the
+ *     candidates of a substring query are the intersection of its posting lists.</li>
+ *     <li>Each edit destroys at most 3 trigrams, so a description matching a query of
+ *     <i>n</i> characters with at most <i>k</i> edits shares at least <i>n</i> - 2 - 3<i>k</i>
+ *     of its trigrams. Fuzzy candidates are the IDs found in that many posting lists, and
+ *     must therefore be in one of the rarest posting lists of the query.</li>
+ * </ul>
+ * Queries too short to be narrowed down this way, i.e. without any trigram or with too few
+ * trigrams to survive the allowed edits, make <code>search</code> and <code>searchFuzzy</code>
+ * return -1, and every Task then has to be verified.
+ */
+public class TrigramIndex {
+    private static final int MIN_MATCHES = 16;
+    private static final PostingList EMPTY = new PostingList();
+
+    private LongIntHashMap trigramToList = new LongIntHashMap();
+    private ArrayList<PostingList> postingLists = new ArrayList<PostingList>();
+    private long[] matches = new long[MIN_MATCHES];
+    private PostingList[] queryLists = new PostingList[MIN_MATCHES];
+    private int[] cursors = new int[MIN_MATCHES];
+
+    /**
+     * Indexes every trigram of <code>description</code> under <code>taskId</code>.
+     *
+     * @param taskId      ID of the Task
+     * @param description description of the Task
+     */
+    public void add(long taskId, String description) {
+        for (long trigram : trigrams(description)) {
+            int list = this.trigramToList.get(trigram);
+            if (list < 0) {
+                list = this.postingLists.size();
+                this.postingLists.add(new PostingList());
+                this.trigramToList.put(trigram, list);
+            }
+            this.postingLists.get(list).add(taskId);
+        }
+    }
+
+    /**
+     * Removes <code>taskId</code> from the posting lists of every trigram of <code>description</code>.
+     *
+     * @param taskId      ID of the Task
+     * @param description description the Task was indexed with
+     */
+    public void remove(long taskId, String description) {
+        for (long trigram : trigrams(description)) {
+            int list = this.trigramToList.get(trigram);
+            if (list >= 0) {
+                this.postingLists.get(list).remove(taskId);
+            }
+        }
+    }
+
+    /**
+     * Finds the candidates for Tasks whose descriptions contain <code>query</code>. The
+     * candidate IDs are written into an internal buffer that is reused by the next search,
+     * so they must be read through <code>getMatch</code> before searching again.
+     *
+     * @param query text to search for
+     * @return number of candidates, or -1 if <code>query</code> is too short to narrow down
+     */
+    public int search(String query) {
+        long[] queryTrigrams = trigrams(query);
+        if (queryTrigrams.length == 0) {
+            return -1;
+        }
+        if (this.queryLists.length < queryTrigrams.length) {
+            this.queryLists = new PostingList[queryTrigrams.length];
+            this.cursors = new int[queryTrigrams.length];
+        }
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            int list = this.trigramToList.get(queryTrigrams[i]);
+            if (list < 0) {
+                Arrays.fill(this.queryLists, 0, i, null);
+                return 0;
+            }
+            this.queryLists[i] = this.postingLists.get(list);
+            ensureMatchCapacity(this.queryLists[i].size());
+        }
+        int count = PostingList.intersect(this.queryLists, queryTrigrams.length, this.cursors, this.matches);
+        Arrays.fill(this.queryLists, 0, queryTrigrams.length, null);
+        return count;
+    }
+
+    /**
+     * Finds the candidates for Tasks whose descriptions contain <code>query</code> with at
+     * most <code>maxEdits</code> characters inserted, deleted or substituted. The candidate
+     * IDs are read through <code>getMatch</code>, as with <code>search</code>.
+     *
+     * @param query    text to search for
+     * @param maxEdits maximum edit distance
+     * @return number of candidates, or -1 if <code>query</code> is too short to narrow down
+     */
+    public int searchFuzzy(String query, int maxEdits) {
+        long[] queryTrigrams = trigrams(query);
+        int minShared = queryTrigrams.length - 3 * maxEdits;
+        if (minShared <= 0) {
+            return -1;
+        }
+        PostingList[] lists = new PostingList[queryTrigrams.length];
+        for (int i = 0; i < lists.length; i++) {
+            int list = this.trigramToList.get(queryTrigrams[i]);
+            lists[i] = list < 0 ? EMPTY : this.postingLists.get(list);
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+        //A candidate sharing minShared trigrams must be in one of the rarest (length - minShared + 1) lists
+        int prefixCount = lists.length - minShared + 1;
+        int total = 0;
+        for (int i = 0; i < prefixCount; i++) {
+            total += lists[i].size();
+        }
+        long[] candidates = new long[total];
+        int filled = 0;
+        for (int i = 0; i < prefixCount; i++) {
+            for (int j = 0; j < lists[i].size(); j++) {
+                candidates[filled] = lists[i].get(j);
+                filled++;
+            }
+        }
+        Arrays.sort(candidates);
+
+        ensureMatchCapacity(total);
+        int[] listCursors = new int[lists.length];
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            long id = candidates[i];
+            if (i > 0 && id == candidates[i - 1]) {
+                continue;
+            }
+            int shared = 0;
+            for (int j = 0; j < lists.length; j++) {
+                //Candidates ascend, so every list is searched from where the previous candidate left off
+                listCursors[j] = lists[j].gallop(id, listCursors[j]);
+                if (listCursors[j] < lists[j].size() && lists[j].get(listCursors[j]) == id) {
+                    shared++;
+                }
+            }
+            if (shared >= minShared) {
+                this.matches[count] = id;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns an ID found by the last search.
+     *
+     * @param i index of the candidate, smaller than the count returned by the search
+     * @return ID of the <code>i</code>-th candidate, in ascending order
+     */
+    public long getMatch(int i) {
+        return this.matches[i];
+    }
+
+    /**
+     * Checks whether <code>text</code> contains <code>query</code>, ignoring case, without
+     * creating lower-cased copies of either.
+     *
+     * @param text  text to search in
+     * @param query text to search for
+     * @return true if <code>query</code> occurs in <code>text</code>
+     */
+    public static boolean containsIgnoreCase(String text, String query) {
+        for (int i = 0; i + query.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether some part of <code>text</code> can be turned into <code>query</code>
+     * with at most <code>maxEdits</code> single-character insertions, deletions or
+     * substitutions, ignoring case. Computes the edit distance of <code>query</code> to its
+     * best match ending at every position of <code>text</code>, keeping a single row.
+     *
+     * @param text     text to search in
+     * @param query    text to search for
+     * @param maxEdits maximum edit distance
+     * @return true if <code>query</code> approximately occurs in <code>text</code>
+     */
+    public static boolean isWithinEditDistance(String text, String query, int maxEdits) {
+        int m = query.length();
+        if (m <= maxEdits) {
+            return true;
+        }
+        //distances[i] is the edit distance of the first i characters of query
+        int[] distances = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            distances[i] = i;
+        }
+        for (int j = 0; j < text.length(); j++) {
+            char c = Character.toLowerCase(text.charAt(j));
+            //A match may start anywhere in text, so the empty prefix costs nothing
+            int diagonal = 0;
+            for (int i = 1; i <= m; i++) {
+                int above = distances[i];
+                int cost = Character.toLowerCase(query.charAt(i - 1)) == c ? 0 : 1;
+                distances[i] = Math.min(Math.min(above + 1, distances[i - 1] + 1), diagonal + cost);
+                diagonal = above;
+            }
+            if (distances[m] <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureMatchCapacity(int capacity) {
+        if (this.matches.length < capacity) {
+            this.matches = new long[capacity];
+        }
+    }
+
+    /** Returns the distinct trigrams of <code>text</code>, each packed into a positive long. */
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        long c0 = Character.toLowerCase(text.charAt(0));
+        long c1 = Character.toLowerCase(text.charAt(1));
+        for (int i = 2; i < text.length(); i++) {
+            long c2 = Character.toLowerCase(text.charAt(i));
+            //The leading bit keeps the trigram of three NUL characters from being 0
+            trigrams[i - 2] = 1L << 48 | c0 << 32 | c1 << 16 | c2;
+            c0 = c1;
+            c1 = c2;
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct] = trigrams[i];
+                distinct++;
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+}
@@ -2,59 +2,155 @@ package duke.utils;
 
 import duke.exceptions.DukeException;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 
 /**
  * This class is meant to abstract away all details of interacting with the user via
  * the console. It provides convenience methods for dealing with both input and output.
+ *
+ * <p>Both input and output are buffered. Output is only flushed once no more input is
+ * waiting to be read, i.e. when the user has to be shown the responses before typing the
+ * next command, so input piped in from a script is answered with a few large writes.
  */
 public class Ui {
-    Scanner sc;
+    private BufferedReader reader;
+    private PrintWriter writer;
+    private boolean isResponseOpen;
+    private char[] lineChars = new char[128];
 
-    /** Constructor. */
+    /** Constructor. Reads from standard input and writes to standard output. */
     public Ui() {
-        this.sc = new Scanner(System.in);
+        this(System.in, System.out);
     }
 
-    /** Reads in a single line from console input. */
+    /**
+     * Constructor.
+     *
+     * @param in  stream from which commands are read
+     * @param out stream to which responses are written
+     */
+    public Ui(InputStream in, OutputStream out) {
+        this.reader = new BufferedReader(new InputStreamReader(in));
+        this.writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)));
+    }
+
+    /**
+     * Reads in a single line from console input, first flushing the output if the user
+     * has yet to type that line.
+     *
+     * @return line read, or null once there is no more input
+     */
     public String readLine() {
-        return sc.nextLine();
+        try {
+            if (!this.reader.ready()) {
+                this.writer.flush();
+            }
+            return this.reader.readLine();
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     /** Prints a welcome message to console. */
     public void printWelcomeMsg() {
         printLine();
-        System.out.println("\tHello! I'm Duke!");
-        System.out.println("\tWhat can I do for you?");
+        printSentence("Hello! I'm Duke!");
+        printSentence("What can I do for you?");
         printLine();
     }
 
     /** Prints an exit message to console. */
     public void printExitMsg() {
         printLine();
-        System.out.println("\tBye! Hope to see you again soon!");
+        printSentence("Bye! Hope to see you again soon!");
         printLine();
     }
 
-    /** Prints an error message to console. */
+    /** Prints an error message to console, after closing any streamed response. */
     public void printErrorMsg(DukeException e) {
+        if (this.isResponseOpen) {
+            endStreamedResponse();
+        }
         printErrorLine();
-        System.out.println("\t" + e.getMessage());
+        printSentence(e.getMessage());
         printErrorLine();
     }
 
+    /** Prints a response built by a Command to console, one sentence per line. */
+    public void printResponse(String response) {
+        printLine();
+        printLines(response);
+        printLine();
+    }
+
+    /**
+     * Prints a sentence of a response that is streamed, i.e. printed while the Command is
+     * still building it. The line opening the response is printed before the first sentence.
+     */
+    public void printStreamedSentence(CharSequence sentence) {
+        if (!this.isResponseOpen) {
+            printLine();
+            this.isResponseOpen = true;
+        }
+        printLines(sentence);
+    }
+
+    /** Ends a streamed response, so that it looks the same as one printed by printResponse. */
+    public void endStreamedResponse() {
+        if (!this.isResponseOpen) {
+            printLine();
+        }
+        printLine();
+        this.isResponseOpen = false;
+    }
+
     /** Prints an input sentence to console. */
     public void printSentence(String sentence) {
-        System.out.println("\t" + sentence);
+        this.writer.print('\t');
+        this.writer.println(sentence);
     }
 
     /** Prints a line to demarcate different sections. */
     public void printLine() {
-        System.out.println("\t____________________________________________________________");
+        this.writer.println("\t____________________________________________________________");
     }
 
     /** Prints a line to demarcate an error section. */
     public void printErrorLine() {
-        System.out.println("\t************************************************************");
+        this.writer.println("\t************************************************************");
+    }
+
+    /** Prints every line of text indented by a tab, copying it through a reused array. */
+    private void printLines(CharSequence text) {
+        int start = 0;
+        while (start < text.length()) {
+            int end = start;
+            while (end < text.length() && text.charAt(end) != '\n') {
+                end++;
+            }
+            int length = end - start + 1;
+            if (this.lineChars.length < length) {
+                this.lineChars = new char[Math.max(length, this.lineChars.length * 2)];
+            }
+            this.lineChars[0] = '\t';
+            for (int i = start; i < end; i++) {
+                this.lineChars[i - start + 1] = text.charAt(i);
+            }
+            this.writer.write(this.lineChars, 0, length);
+            this.writer.println();
+            start = end + 1;
+        }
+    }
+
+    /** Writes out everything printed so far. Must be called before the application exits. */
+    public void flush() {
+        this.writer.flush();
     }
 }
@@ -1,39 +1,148 @@
 package duke.utils;
 
+import duke.tasks.Task;
+
+import java.util.function.Consumer;
+
 /**
  * Handles the building of the strings to be displayed in the GUI.
+ *
+ * <p>A UiResponse is meant to be reused from one Command to the next. Sentences are
+ * written straight into a single buffer, which keeps its capacity when the response is
+ * reset unless a very long response made it grow past <code>MAX_RETAINED_CAPACITY</code>.
+ * A sentence may be added whole, or built up from Strings, numbers and Tasks through the
+ * <code>append</code> methods and then ended with <code>endSentence</code>.
+ *
+ * <p>A UiResponse given a sink streams its sentences instead: every sentence is handed to
+ * the sink as soon as it is ended, and nothing is kept, so a long listing can be shown
+ * while it is still being built.
  */
 public class UiResponse {
+    /** Number of characters the buffer can hold before it first grows. */
+    public static final int DEFAULT_CAPACITY = 256;
+    /** Largest capacity that the buffer keeps when it is reset. */
+    public static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+    private final int initialCapacity;
+    private final Consumer<CharSequence> sink;
     private StringBuilder sb;
 
     /**
      * Constructor for UiResponse.
      */
     public UiResponse() {
-        this.sb = new StringBuilder();
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for a UiResponse whose buffer starts with a given capacity.
+     *
+     * @param initialCapacity number of characters the buffer can hold before it first grows
+     */
+    public UiResponse(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.sink = null;
+        this.sb = new StringBuilder(initialCapacity);
+    }
+
+    /**
+     * Constructor for a UiResponse that streams its sentences.
+     *
+     * @param sink receives every sentence as it is ended, followed by a line break. The
+     *             CharSequence is only valid until the sink returns, so it must be copied
+     *             if it is kept
+     */
+    public UiResponse(Consumer<CharSequence> sink) {
+        this.initialCapacity = DEFAULT_CAPACITY;
+        this.sink = sink;
+        this.sb = new StringBuilder(DEFAULT_CAPACITY);
     }
 
     /**
-     * Clears the stored String.
+     * Clears the stored text, keeping the buffer for the next response.
      */
     public void reset() {
-        this.sb = new StringBuilder();
+        if (this.sb.capacity() > MAX_RETAINED_CAPACITY) {
+            this.sb = new StringBuilder(this.initialCapacity);
+        } else {
+            this.sb.setLength(0);
+        }
     }
 
     /**
      * Adds the input String. This String will be appended to the existing
-     * text that will be displayed on the GUI.
+     * text that will be displayed on the GUI, or handed to the sink if there is one.
      * @param s input String to be appended
      */
     public void addSentence(String s) {
-        this.sb.append(s + "\n");
+        this.sb.append(s);
+        endSentence();
+    }
+
+    /**
+     * Adds a Task as a sentence of its own, indented by a tab.
+     * @param t Task to be shown
+     */
+    public void addTask(Task t) {
+        this.sb.append('\t').append(t);
+        endSentence();
+    }
+
+    /**
+     * Adds a Task along with its ID as a sentence of its own, indented by a tab, as
+     * listings show them.
+     * @param t Task to be shown
+     */
+    public void addTaskWithId(Task t) {
+        this.sb.append('\t').append(t.getId()).append(". ").append(t);
+        endSentence();
+    }
+
+    /**
+     * Appends a String to the sentence being built.
+     * @param s String to be appended
+     * @return this UiResponse
+     */
+    public UiResponse append(String s) {
+        this.sb.append(s);
+        return this;
+    }
+
+    /**
+     * Appends a number to the sentence being built, without creating a String for it.
+     * @param n number to be appended
+     * @return this UiResponse
+     */
+    public UiResponse append(long n) {
+        this.sb.append(n);
+        return this;
+    }
+
+    /**
+     * Ends the sentence being built, handing it to the sink if there is one.
+     */
+    public void endSentence() {
+        this.sb.append('\n');
+        if (this.sink != null) {
+            this.sink.accept(this.sb);
+            this.sb.setLength(0);
+        }
     }
 
     /**
      * Obtains the stored text.
-     * @return String representing the text stored thus far
+     * @return String representing the text stored thus far, which is empty if the sentences are streamed
      */
     public String getResponse() {
-        return this.sb.toString();
+        return this.sb.length() == 0 ? "" : this.sb.toString();
+    }
+
+    /**
+     * Obtains the stored text without copying it, for callers that only read it before the
+     * next change to this UiResponse.
+     * @return CharSequence view of the text stored thus far
+     */
+    public CharSequence getResponseView() {
+        return this.sb;
     }
 }
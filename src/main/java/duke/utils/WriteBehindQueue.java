@@ -0,0 +1,217 @@
+package duke.utils;
+
+import duke.exceptions.DukeException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-writer queue that takes journal records off the thread running the Commands.
+ * Records enqueued within the same commit window are handed to the Sink as one batch,
+ * so that a burst of mutations costs one physical write (and at most one fsync) instead
+ * of one per mutation. Callers that need the records on disk, such as an explicit save or
+ * shutting down, wait on the <code>flush</code> barrier.
+ *
+ * <p>A batch that fails to commit is kept, ahead of the records enqueued since, and tried
+ * again after a delay, so records reach the Sink in order and none is skipped. The failure
+ * is reported by <code>flush</code> until a later attempt succeeds or the records are
+ * discarded because a snapshot has captured them.
+ */
+public class WriteBehindQueue {
+    /** Destination of the batched records. Only ever called from the writer thread. */
+    public interface Sink {
+        void commit(List<String> records) throws DukeException;
+    }
+
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private Sink sink;
+    private long commitWindowMillis;
+    private Thread writer;
+
+    private ArrayList<String> pendingRecords = new ArrayList<String>();
+    private long enqueuedCount;
+    private long committedCount;
+    private int commitCount;
+    private int startedCommitCount;
+    private int waitingFlushes;
+    private boolean isClosed;
+    private boolean isCommitting;
+    private boolean isWriterStopped;
+    private DukeException failure;
+
+    /**
+     * Constructor. Starts the writer thread.
+     *
+     * @param sink               Sink that the batched records are committed to
+     * @param commitWindowMillis how long the writer waits for further records after the
+     *                           first record of a batch arrives
+     */
+    public WriteBehindQueue(Sink sink, long commitWindowMillis) {
+        this.sink = sink;
+        this.commitWindowMillis = commitWindowMillis;
+        this.writer = new Thread(this::runWriter, "duke-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a record to be committed with the next batch. A batch that failed earlier is
+     * not reported here, as it has nothing to do with the caller's record.
+     *
+     * @param record record to be committed
+     * @throws DukeException thrown when the queue is closed.
+     */
+    public synchronized void enqueue(String record) throws DukeException {
+        if (this.isClosed) {
+            throw new DukeException("Storage has already been closed!");
+        }
+        this.pendingRecords.add(record);
+        this.enqueuedCount++;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until every record enqueued before this call has been committed, cutting
+     * the current commit window short.
+     *
+     * @throws DukeException thrown when a batch could not be committed.
+     */
+    public void flush() throws DukeException {
+        DukeException e = awaitCommitted();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks until every record enqueued before this call has been committed, like
+     * <code>flush</code>, but hands back a commit failure instead of throwing it. Meant
+     * for callers that are about to supersede the journal with a full snapshot anyway.
+     *
+     * @return the failure of the batch still waiting to be committed again, or null if none failed
+     * @throws DukeException thrown when interrupted while waiting.
+     */
+    public synchronized DukeException awaitCommitted() throws DukeException {
+        long target = this.enqueuedCount;
+        int startedBefore = this.startedCommitCount;
+        this.waitingFlushes++;
+        notifyAll();
+        try {
+            //A batch that failed before this call is tried again before its failure is reported
+            while (this.committedCount < target && !this.isWriterStopped
+                    && (this.failure == null || this.commitCount <= startedBefore)) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DukeException("Interrupted while saving!");
+        } finally {
+            this.waitingFlushes--;
+        }
+        return this.failure;
+    }
+
+    /**
+     * Drops every record not committed yet, including a batch that failed, once the writer
+     * is not in the middle of a commit. Meant for callers that have just captured those
+     * records in a full snapshot, and must make sure no other records are enqueued meanwhile.
+     *
+     * @throws DukeException thrown when interrupted while waiting.
+     */
+    public synchronized void discardUncommitted() throws DukeException {
+        try {
+            while (this.isCommitting) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DukeException("Interrupted while saving!");
+        }
+        this.committedCount += this.pendingRecords.size();
+        this.pendingRecords = new ArrayList<String>();
+        this.failure = null;
+        notifyAll();
+    }
+
+    /**
+     * Commits every outstanding record and stops the writer thread.
+     *
+     * @throws DukeException thrown when the outstanding records could not be committed.
+     */
+    public void close() throws DukeException {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                this.isClosed = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of batches committed so far.
+     *
+     * @return number of calls made to the Sink
+     */
+    public synchronized int getCommitCount() {
+        return this.commitCount;
+    }
+
+    private void runWriter() {
+        while (true) {
+            ArrayList<String> batch;
+            synchronized (this) {
+                try {
+                    while (this.pendingRecords.isEmpty() && !this.isClosed) {
+                        wait();
+                    }
+                    if (this.pendingRecords.isEmpty() || (this.isClosed && this.failure != null)) {
+                        //Records that still fail once closed are left to be captured by a snapshot
+                        this.isWriterStopped = true;
+                        notifyAll();
+                        return;
+                    }
+                    long window = this.failure == null
+                            ? this.commitWindowMillis
+                            : Math.max(this.commitWindowMillis, RETRY_DELAY_MILLIS);
+                    long deadline = System.currentTimeMillis() + window;
+                    long remaining = window;
+                    while (remaining > 0 && this.waitingFlushes == 0 && !this.isClosed) {
+                        wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    //Nothing but shutdown interrupts the writer, so commit what has been gathered and stop
+                    this.isClosed = true;
+                }
+                batch = this.pendingRecords;
+                this.pendingRecords = new ArrayList<String>();
+                this.isCommitting = true;
+                this.startedCommitCount++;
+            }
+
+            DukeException batchFailure = null;
+            try {
+                this.sink.commit(batch);
+            } catch (DukeException e) {
+                batchFailure = e;
+            }
+
+            synchronized (this) {
+                this.isCommitting = false;
+                this.failure = batchFailure;
+                if (batchFailure == null) {
+                    this.committedCount += batch.size();
+                } else {
+                    //Tried again ahead of the records enqueued since, so that the journal stays in order
+                    batch.addAll(this.pendingRecords);
+                    this.pendingRecords = batch;
+                }
+                this.commitCount++;
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class CommandPipelineTest {
+    @Test
+    public void testSubmit_OutcomesDeliveredInOrder() throws Exception {
+        Path directory = Files.createTempDirectory("duke");
+        Duke duke = new Duke(directory.resolve("savedTasks.txt").toString());
+        CommandPipeline pipeline = new CommandPipeline(duke, Runnable::run);
+        List<String> outcomes = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch delivered = new CountDownLatch(301);
+        try {
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit("todo task" + i, outcomes::add, e -> outcomes.add("error"));
+                pipeline.submit("find task" + i, outcomes::add, e -> outcomes.add("error"));
+                pipeline.submit("done 0", outcomes::add, e -> outcomes.add("error"));
+            }
+            pipeline.submit("todo task", r -> delivered.countDown(), e -> { });
+            for (int i = 0; i < 300; i++) {
+                pipeline.submit("list", r -> delivered.countDown(), e -> { });
+            }
+            assertTrue(delivered.await(30, TimeUnit.SECONDS));
+            assertEquals(0, pipeline.getPendingCount());
+
+            assertEquals(300, outcomes.size());
+            for (int i = 0; i < 100; i++) {
+                assertTrue(outcomes.get(3 * i).startsWith("Got it."));
+                assertTrue(outcomes.get(3 * i + 1).contains((i + 1) + ". [T]"));
+                assertEquals("error", outcomes.get(3 * i + 2));
+            }
+        } finally {
+            pipeline.shutdown();
+            duke.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmit_LongListingDeliveredInParts() throws Exception {
+        Path directory = Files.createTempDirectory("duke");
+        Path script = directory.resolve("script.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(script)) {
+            for (int i = 0; i < 250; i++) {
+                writer.write("todo task" + i + "\n");
+            }
+        }
+        Duke duke = new Duke(directory.resolve("savedTasks.txt").toString());
+        duke.runScript(script.toString());
+        CommandPipeline pipeline = new CommandPipeline(duke, Runnable::run);
+        List<String> parts = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch delivered = new CountDownLatch(1);
+        try {
+            pipeline.submit("list", parts::add, r -> {
+                parts.add(r);
+                delivered.countDown();
+            }, e -> delivered.countDown());
+            assertTrue(delivered.await(30, TimeUnit.SECONDS));
+
+            //The heading and 250 rows, delivered 100 rows at a time
+            assertEquals(3, parts.size());
+            assertTrue(parts.get(0).startsWith("Here are the tasks in your list:\n\t1. "));
+            assertTrue(parts.get(2).endsWith("\t250. [T][\u2718] task249\n"));
+            assertEquals(duke.getResponse("list"), parts.get(0) + parts.get(1) + parts.get(2));
+        } finally {
+            pipeline.shutdown();
+            duke.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancel_LongQueryStoppedAndLaterCommandsRun() throws Exception {
+        Path directory = Files.createTempDirectory("duke");
+        Path script = directory.resolve("script.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(script)) {
+            for (int i = 0; i < 100000; i++) {
+                writer.write("todo task" + i + "\n");
+            }
+        }
+        Duke duke = new Duke(directory.resolve("savedTasks.txt").toString());
+        duke.runScript(script.toString());
+        CommandPipeline pipeline = new CommandPipeline(duke, Runnable::run);
+        List<String> outcomes = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch delivered = new CountDownLatch(2);
+        try {
+            pipeline.submit("list", r -> {
+                outcomes.add(r);
+                delivered.countDown();
+            }, e -> delivered.countDown());
+            pipeline.submit("todo after", r -> {
+                outcomes.add(r);
+                delivered.countDown();
+            }, e -> delivered.countDown());
+            while (!pipeline.cancel()) {
+                Thread.yield();
+            }
+            assertTrue(delivered.await(30, TimeUnit.SECONDS));
+
+            assertEquals(CommandPipeline.CANCELLED_RESPONSE, outcomes.get(0));
+            assertTrue(outcomes.get(1).startsWith("Got it."));
+            assertTrue(outcomes.get(1).contains("100001 tasks"));
+        } finally {
+            pipeline.shutdown();
+            duke.shutdown();
+        }
+    }
+}
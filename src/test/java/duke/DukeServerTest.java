@@ -0,0 +1,146 @@
+package duke;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DukeServerTest {
+    private static final int CLIENTS = 16;
+    private static final int ADDS_PER_CLIENT = 200;
+
+    @Test
+    public void testServe_ConcurrentClientsShareOneTaskList() throws Exception {
+        String filePath = Files.createTempDirectory("duke").resolve("savedTasks.txt").toString();
+        Duke duke = new Duke(filePath);
+        DukeServer server = new DukeServer(duke, 0);
+        server.start();
+        try {
+            runClients(server.getPort());
+
+            //Every Task was added exactly once, and got an ID of its own
+            String[] lines = duke.getResponse("list").split("\n");
+            assertEquals(CLIENTS * ADDS_PER_CLIENT + 1, lines.length);
+            HashSet<String> ids = new HashSet<String>();
+            HashSet<String> descriptions = new HashSet<String>();
+            for (int i = 1; i < lines.length; i++) {
+                ids.add(lines[i].substring(0, lines[i].indexOf('.')).trim());
+                descriptions.add(lines[i].substring(lines[i].indexOf("client")));
+            }
+            assertEquals(CLIENTS * ADDS_PER_CLIENT, ids.size());
+            assertEquals(CLIENTS * ADDS_PER_CLIENT, descriptions.size());
+        } finally {
+            server.close();
+            duke.shutdown();
+        }
+    }
+
+    @Test
+    public void testServe_ExecRefused() throws Exception {
+        Path dir = Files.createTempDirectory("duke");
+        Path script = Files.write(dir.resolve("script.txt"), "todo from a script\n".getBytes(StandardCharsets.UTF_8));
+        Duke duke = new Duke(dir.resolve("savedTasks.txt").toString());
+        DukeServer server = new DukeServer(duke, 0);
+        server.start();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            List<String> error = send(reader, writer, "exec " + script);
+            assertEquals(1, error.size());
+            assertEquals("! OOPS!!! Scripts cannot be run over the network!", error.get(0));
+            //The session stays open, and the script was not run
+            assertEquals(1, send(reader, writer, "list").size());
+        } finally {
+            server.close();
+            duke.shutdown();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkServe_ConcurrentClients() throws Exception {
+        String filePath = Files.createTempDirectory("duke").resolve("savedTasks.txt").toString();
+        Duke duke = new Duke(filePath);
+        DukeServer server = new DukeServer(duke, 0);
+        server.start();
+        try {
+            long startNanos = System.nanoTime();
+            int commandCount = runClients(server.getPort());
+            long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1000000);
+            System.out.println(CLIENTS + " clients ran " + commandCount + " commands in " + elapsedMillis
+                    + " ms (" + commandCount * 1000L / elapsedMillis + " commands/s)");
+        } finally {
+            server.close();
+            duke.shutdown();
+        }
+    }
+
+    /** Runs every client at once, returning the number of commands they sent. */
+    private static int runClients(int port) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                results.add(clients.submit(() -> runClient(port, client)));
+            }
+            int commandCount = 0;
+            for (Future<Integer> result : results) {
+                commandCount += result.get();
+            }
+            return commandCount;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    /** Adds Tasks and searches for them in turn, returning the number of commands sent. */
+    private static int runClient(int port, int client) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            int commandCount = 0;
+            for (int i = 0; i < ADDS_PER_CLIENT; i++) {
+                List<String> added = send(reader, writer, "todo client" + client + " task" + i);
+                assertTrue(added.get(0).startsWith("Got it."));
+                List<String> found = send(reader, writer, "find -w client" + client + " task" + i);
+                assertEquals(2, found.size());
+                commandCount += 2;
+            }
+            List<String> error = send(reader, writer, "done " + Long.MAX_VALUE / 10);
+            assertTrue(error.get(0).startsWith("!"));
+            return commandCount + 1;
+        }
+    }
+
+    private static List<String> send(BufferedReader reader, Writer writer, String command) throws IOException {
+        writer.write(command + "\n");
+        writer.flush();
+        List<String> response = new ArrayList<String>();
+        String line;
+        while (!(line = reader.readLine()).equals(".")) {
+            response.add(line);
+        }
+        return response;
+    }
+}
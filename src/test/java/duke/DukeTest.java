@@ -0,0 +1,41 @@
+package duke;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DukeTest {
+    private static final int THREADS = 8;
+    private static final int TASKS = 200;
+
+    @Test
+    public void testGetResponse_ConcurrentQueriesKeepTheirOwnOutput() throws Exception {
+        String filePath = Files.createTempDirectory("duke").resolve("savedTasks.txt").toString();
+        Duke duke = new Duke(filePath);
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < TASKS; i++) {
+                duke.getResponse("todo task" + i);
+            }
+            String expected = duke.getResponse("list");
+            List<Future<String>> responses = new ArrayList<Future<String>>();
+            for (int i = 0; i < THREADS * 500; i++) {
+                responses.add(threads.submit(() -> duke.getResponse("list")));
+            }
+            //Each response holds one whole listing, with nothing from the others mixed in
+            for (Future<String> response : responses) {
+                assertEquals(expected, response.get());
+            }
+        } finally {
+            threads.shutdown();
+            duke.shutdown();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package duke.gui;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Text;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class DialogBoxTest {
+    //The FXML that DukeDialogBox used to be loaded from for every message
+    private static final String DUKE_DIALOG_BOX_FXML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.geometry.Insets?>\n"
+            + "<?import javafx.scene.text.Text?>\n"
+            + "<?import javafx.scene.image.ImageView?>\n"
+            + "<?import javafx.scene.layout.HBox?>\n"
+            + "<fx:root alignment=\"TOP_RIGHT\" maxHeight=\"1.7976931348623157E308\""
+            + " maxWidth=\"1.7976931348623157E308\" prefWidth=\"400.0\" type=\"javafx.scene.layout.HBox\""
+            + " xmlns=\"http://javafx.com/javafx/8.0.171\" xmlns:fx=\"http://javafx.com/fxml/1\""
+            + " styleClass=\"duke-panel\">\n"
+            + "    <children>\n"
+            + "        <Text fx:id=\"dialog\" wrappingWidth=\"400\" styleClass=\"dialogText\"/>\n"
+            + "        <ImageView fx:id=\"displayPicture\" fitHeight=\"99.0\" fitWidth=\"99.0\""
+            + " pickOnBounds=\"true\" preserveRatio=\"true\" />\n"
+            + "    </children>\n"
+            + "    <padding>\n"
+            + "        <Insets bottom=\"15.0\" left=\"5.0\" right=\"5.0\" top=\"15.0\" />\n"
+            + "    </padding>\n"
+            + "</fx:root>\n";
+    private static final int MESSAGES = 2000;
+
+    @Test
+    public void testDukeDialogBox_PictureOnTheLeft() {
+        startToolkit();
+        DukeDialogBox dialogBox = new DukeDialogBox("Hello! I'm Duke!", null);
+        assertTrue(dialogBox.getChildren().get(0) instanceof ImageView);
+        Text text = (Text) dialogBox.getChildren().get(1);
+        assertEquals("Hello! I'm Duke!", text.getText());
+
+        dialogBox.setText("Bye!");
+        assertSame(text, dialogBox.getChildren().get(1));
+        assertEquals("Bye!", text.getText());
+    }
+
+    //Reports the cost of each way rather than comparing them, as wall-clock times vary from run to run
+    @Test
+    @Tag("benchmark")
+    public void benchmarkCreate_FxmlAgainstDirect() throws IOException {
+        startToolkit();
+        //Both ways are warmed up first, so that neither is timed while being compiled
+        createFromFxml(MESSAGES);
+        createDirectly(MESSAGES);
+
+        long fxmlNanos = createFromFxml(MESSAGES);
+        long directNanos = createDirectly(MESSAGES);
+        System.out.printf("Creating a DukeDialogBox took %.1f us from FXML and %.1f us directly%n",
+                fxmlNanos / 1e3 / MESSAGES, directNanos / 1e3 / MESSAGES);
+    }
+
+    private static long createFromFxml(int count) throws IOException {
+        byte[] fxml = DUKE_DIALOG_BOX_FXML.getBytes(StandardCharsets.UTF_8);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            HBox dialogBox = new HBox();
+            FXMLLoader fxmlLoader = new FXMLLoader();
+            fxmlLoader.setRoot(dialogBox);
+            fxmlLoader.load(new ByteArrayInputStream(fxml));
+            ((Text) fxmlLoader.getNamespace().get("dialog")).setText("Message " + i);
+            //The flip that used to follow
+            ObservableList<Node> tmp = FXCollections.observableArrayList(dialogBox.getChildren());
+            Collections.reverse(tmp);
+            dialogBox.getChildren().setAll(tmp);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long createDirectly(int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            new DukeDialogBox("Message " + i, null);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void startToolkit() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            //The toolkit was started by an earlier test
+        } catch (UnsupportedOperationException e) {
+            assumeTrue(false, "JavaFX cannot start without a display");
+        }
+    }
+}
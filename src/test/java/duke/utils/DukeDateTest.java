@@ -0,0 +1,48 @@
+package duke.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+
+public class DukeDateTest {
+    @Test
+    public void testParse_RoundTripThroughEpochMinute() {
+        try {
+            DukeDate date = new DukeDate("26/02/1997 09:05");
+            assertEquals(14282465, date.getEpochMinute());
+            assertEquals("26/02/1997 09:05", new DukeDate(date.getEpochMinute()).toString());
+            assertEquals("01/01/1960 23:59", new DukeDate(new DukeDate("1/1/1960 23:59").getEpochMinute()).toString());
+            assertEquals("29/02/2000 00:00", new DukeDate("29/02/2000 00:00").toString());
+        } catch (ParseException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testParse_InvalidDatesRejected() {
+        assertThrows(ParseException.class, () -> new DukeDate("29/02/1999 00:00"));
+        assertThrows(ParseException.class, () -> new DukeDate("26/02/1997 24:00"));
+        assertThrows(ParseException.class, () -> new DukeDate("26-02-1997 09:00"));
+        assertThrows(ParseException.class, () -> new DukeDate("26/02/1997 09:00pm"));
+    }
+
+    @Test
+    public void testParse_EpochDayMatchesLocalDate() {
+        try {
+            for (long day = LocalDate.of(1600, 1, 1).toEpochDay(); day < LocalDate.of(2400, 1, 1).toEpochDay(); day++) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                String dateStr = date.getDayOfMonth() + "/" + date.getMonthValue() + "/" + date.getYear() + " 00:00";
+                assertEquals(day * 24 * 60, new DukeDate(dateStr).getEpochMinute(), dateStr);
+            }
+        } catch (ParseException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+}
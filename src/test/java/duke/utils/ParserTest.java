@@ -2,13 +2,29 @@ package duke.utils;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import duke.exceptions.DukeException;
+import duke.commands.AddCommand;
 import duke.commands.Command;
+import duke.commands.DoneCommand;
+import duke.commands.FindCommand;
+import duke.commands.FreeSlotsCommand;
 import duke.commands.SaveCommand;
+import duke.tasks.Deadline;
+import duke.tasks.Event;
+import duke.tasks.Task;
+import duke.tasks.ToDo;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
 import java.util.ArrayList;
 
 public class ParserTest {
@@ -24,43 +40,112 @@ public class ParserTest {
     }
 
     @Test
-    public void testParseToDo() {
+    public void testParseToDo() throws IOException, DukeException {
+        Task t = addParsed("todo      task_with_many_spaces     ");
+        assertTrue(t instanceof ToDo);
+        assertEquals("task_with_many_spaces", t.getDescription());
+    }
+
+    @Test
+    public void testParseEvent() throws IOException, DukeException {
+        Task t = addParsed("event    project meeting     /at     26/05/1997 18:00   -    26/05/1997 18:30  ");
+        assertEquals(new Event("project meeting", "26/05/1997 18:00", "26/05/1997 18:30").toString(), t.toString());
+        //An Event may start and end at the same time, but not end before it starts
+        Parser.parse("event lunch /at 26/05/1997 12:00 - 26/05/1997 12:00");
+        assertThrows(DukeException.class, () -> Parser.parse("event lunch /at 26/05/1997 12:00 - 25/05/1997 13:00"));
+        assertThrows(DukeException.class, () ->
+                Parser.parse("event lunch /at 26/05/1997 12:00 - 26/05/1997 11:59"));
+    }
+
+    @Test
+    public void testParseDeadline() throws IOException, DukeException {
+        Task t = addParsed("deadline     return library   books     /by     26/05/1997 18:00    ");
+        assertEquals(new Deadline("return library   books", "26/05/1997 18:00").toString(), t.toString());
+    }
+
+    @Test
+    public void testParse_TypedCommands() {
         try {
-            ArrayList<String> commandParams = Parser.parseToDo("     task_with_many_spaces     ");
-            assertTrue(commandParams.get(1).equals("task_with_many_spaces"));
+            assertTrue(Parser.parse("  DONE   3 ") instanceof DoneCommand);
+            assertTrue(Parser.parse("find -w book") instanceof FindCommand);
+            assertTrue(Parser.parse("event meeting /at 26/05/1997 18:00 - 26/05/1997 18:30") instanceof AddCommand);
+            assertTrue(Parser.parse("freeslots 30 26/05/1997 09:00 - 26/05/1997 18:00") instanceof FreeSlotsCommand);
+            assertSame(Parser.parse("list"), Parser.parse("List"));
         } catch (DukeException e) {
             System.out.println(e.getMessage());
             fail();
         }
+        assertThrows(DukeException.class, () -> Parser.parse("done three"));
+        assertThrows(DukeException.class, () -> Parser.parse("deadline return books /by 31/02/1997 18:00"));
+        assertThrows(DukeException.class, () -> Parser.parse("event meeting /at 26/05/1997 18:00"));
+        assertThrows(DukeException.class, () -> Parser.parse("due 26/05/1997 18:00 - "));
+        assertThrows(DukeException.class, () -> Parser.parse("   "));
+        assertThrows(DukeException.class, () -> Parser.parse("frobnicate"));
     }
 
     @Test
-    public void testParseEvent() {
-        try {
-            String eventString = "    project meeting     /at     26/05/1997 18:00   -    26/05/1997 18:30  ";
-            ArrayList<String> commandParams = Parser.parseEvent(eventString);
-            boolean boolFirstArg = commandParams.get(1).equals("project meeting");
-            boolean boolSecondArg = commandParams.get(2).equals("26/05/1997 18:00");
-            boolean boolThirdArg = commandParams.get(3).equals("26/05/1997 18:30");
-            assertTrue(boolFirstArg && boolSecondArg && boolThirdArg);
-        } catch (DukeException e) {
-            System.out.println(e.getMessage());
-            fail();
+    public void testParse_PageOptions() throws DukeException {
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        for (int i = 1; i <= 7; i++) {
+            allTasks.addToDo("read book " + i);
         }
+        UiResponse ui = new UiResponse();
+
+        String response = Parser.parse("list --page 2 --limit 3").execute(ui, null, allTasks);
+        assertEquals("Here are the tasks in your list:\n\t4. [T][\u2718] read book 4\n"
+                + "\t5. [T][\u2718] read book 5\n\t6. [T][\u2718] read book 6\n"
+                + "Type \"list --after 6 --limit 3\" to see more.\n", response);
+        response = Parser.parse("list --after 6 --limit 3").execute(ui, null, allTasks);
+        assertEquals("Here are the tasks in your list:\n\t7. [T][\u2718] read book 7\n", response);
+
+        response = Parser.parse("find -w Read  Book --limit 6").execute(ui, null, allTasks);
+        assertTrue(response.endsWith("\t6. [T][\u2718] read book 6\n"
+                + "Type \"find -w Read  Book --after 6 --limit 6\" to see more.\n"));
+        response = Parser.parse("find --limit").execute(ui, null, allTasks);
+        assertEquals("Sorry, no tasks match your search term!\n", response);
+
+        assertThrows(DukeException.class, () -> Parser.parse("list --page 0"));
+        assertThrows(DukeException.class, () -> Parser.parse("list --limit many"));
+        assertThrows(DukeException.class, () -> Parser.parse("list everything"));
+        assertThrows(DukeException.class, () -> Parser.parse("find book --limit 0"));
     }
 
     @Test
-    public void testParseDeadline() {
-        try {
-            String deadlineString = "     return library   books     /by     26/05/1997 18:00    ";
-            ArrayList<String> commandParams = Parser.parseDeadline(deadlineString);
-            boolean boolFirstArg = commandParams.get(1).equals("return library   books");
-            boolean boolSecondArg = commandParams.get(2).equals("26/05/1997 18:00");
-            assertTrue(boolFirstArg && boolSecondArg);
-        } catch (DukeException e) {
-            System.out.println(e.getMessage());
-            fail();
+    public void testParse_FewBytesAllocatedPerLine() throws DukeException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        String[] lines = {
+            "todo read book",
+            "deadline return library books /by 26/05/1997 18:00",
+            "event project meeting /at 26/05/1997 18:00 - 26/05/1997 18:30",
+            "done 12",
+            "find -w book",
+            "list"
+        };
+        long threadId = Thread.currentThread().getId();
+        int rounds = 20000;
+
+        //Warm up first, so that the measured rounds run compiled code
+        for (int i = 0; i < rounds; i++) {
+            Parser.parse(lines[i % lines.length]);
+        }
+        long bytesBefore = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rounds; i++) {
+            Parser.parse(lines[i % lines.length]);
         }
+        long bytesPerLine = (allocations.getThreadAllocatedBytes(threadId) - bytesBefore) / rounds;
+        //Only the Command, its Strings and its DukeDates are allocated, about 70 bytes on average
+        assertTrue(bytesPerLine < 256, "Parsing allocated " + bytesPerLine + " bytes per line");
     }
-}
 
+    /** Parses <code>command</code> and executes it against an empty TaskList, returning the Task it added. */
+    private static Task addParsed(String command) throws IOException, DukeException {
+        Storage storage = new Storage(Files.createTempDirectory("duke").resolve("savedTasks.txt").toString());
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        Parser.parse(command).execute(new UiResponse(), storage, allTasks);
+        assertEquals(1, allTasks.size());
+        return allTasks.iterator().next();
+    }
+}
@@ -0,0 +1,46 @@
+package duke.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import duke.exceptions.DukeException;
+import duke.tasks.Event;
+import duke.tasks.Task;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+
+public class ScheduleAnalyzerTest {
+    @Test
+    public void testSweep_ConflictsAndFreeSlots() {
+        try {
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addEvent("Meeting", "26/02/1997 09:00", "26/02/1997 10:00");
+            allTasks.addEvent("Back to back", "26/02/1997 10:00", "26/02/1997 11:00");
+            allTasks.addEvent("Workshop", "26/02/1997 09:30", "26/02/1997 12:00");
+            allTasks.addEvent("Dinner", "26/02/1997 19:00", "26/02/1997 20:00");
+            allTasks.addToDo("Not an event");
+
+            ScheduleAnalyzer analyzer = new ScheduleAnalyzer(allTasks);
+            ArrayList<Event[]> conflicts = analyzer.findConflicts();
+            assertEquals(2, conflicts.size());
+            assertEquals("Meeting", conflicts.get(0)[0].getDescription());
+            assertEquals("Workshop", conflicts.get(0)[1].getDescription());
+            assertEquals("Workshop", conflicts.get(1)[0].getDescription());
+            assertEquals("Back to back", conflicts.get(1)[1].getDescription());
+
+            long from = new DukeDate("26/02/1997 08:00").getEpochMinute();
+            long to = new DukeDate("26/02/1997 22:00").getEpochMinute();
+            ArrayList<long[]> freeSlots = analyzer.findFreeSlots(from, to, 90);
+            assertEquals(2, freeSlots.size());
+            assertEquals("26/02/1997 12:00", new DukeDate(freeSlots.get(0)[0]).toString());
+            assertEquals("26/02/1997 19:00", new DukeDate(freeSlots.get(0)[1]).toString());
+            assertEquals("26/02/1997 20:00", new DukeDate(freeSlots.get(1)[0]).toString());
+        } catch (DukeException | ParseException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+}
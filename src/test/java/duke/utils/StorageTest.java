@@ -0,0 +1,256 @@
+package duke.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import duke.commands.ExecCommand;
+import duke.exceptions.DukeException;
+import duke.tasks.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class StorageTest {
+    @Test
+    public void testLoad_JournalReplayedOnSnapshot() {
+        try {
+            Path dir = Files.createTempDirectory("duke");
+            String filePath = dir.resolve("savedTasks.txt").toString();
+
+            Storage storage = new Storage(filePath);
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addToDo("Snapshot ToDo");
+            storage.save(allTasks);
+
+            storage.recordAdd(allTasks.addDeadline("Journal Deadline", "26/02/1997 09:00"));
+            storage.recordAdd(allTasks.addToDo("Journal ToDo"));
+            allTasks.completeTask(2);
+            storage.recordDone(2);
+            allTasks.deleteTask(1);
+            storage.recordDelete(1);
+
+            TaskList loadedTasks = new Storage(filePath).load();
+            assertEquals(2, loadedTasks.size());
+            assertEquals(allTasks.getArrayList().get(0).toString(), loadedTasks.getArrayList().get(0).toString());
+            assertTrue(loadedTasks.getArrayList().get(0).getDoneStatus());
+            assertEquals("[T][\u2718] Journal ToDo", loadedTasks.getTask(3).toString());
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testLoad_TornJournalRecordCutOff() throws IOException, DukeException {
+        Path dir = Files.createTempDirectory("duke");
+        String filePath = dir.resolve("savedTasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        allTasks.addToDo("Snapshot ToDo");
+        storage.save(allTasks);
+        storage.recordAdd(allTasks.addToDo("Journal ToDo"));
+        //A crash in the middle of an append leaves the last record without its line separator
+        Files.write(Paths.get(filePath + ".journal"), "add | 3 | T | 0 | Torn".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        Storage restartedStorage = new Storage(filePath);
+        TaskList loadedTasks = restartedStorage.load();
+        assertEquals(2, loadedTasks.size());
+        restartedStorage.recordAdd(loadedTasks.addToDo("After crash"));
+
+        TaskList reloadedTasks = new Storage(filePath).load();
+        assertEquals(3, reloadedTasks.size());
+        assertEquals("[T][\u2718] After crash", reloadedTasks.getTask(3).toString());
+    }
+
+    @Test
+    public void testCompaction_JournalFoldedIntoSnapshot() {
+        try {
+            Path dir = Files.createTempDirectory("duke");
+            String filePath = dir.resolve("savedTasks.txt").toString();
+
+            Storage storage = new Storage(filePath);
+            storage.getCompactor().setThresholds(Long.MAX_VALUE, 3);
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            for (int i = 1; i <= 4; i++) {
+                storage.recordAdd(allTasks.addToDo("ToDo " + i));
+            }
+            storage.getCompactor().awaitIdle();
+
+            assertEquals(1, storage.getCompactor().getCompactionCount());
+            assertEquals(3, storage.readSnapshot(new File(filePath)).size());
+            assertEquals(4, new Storage(filePath).load().size());
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testSave_ReplacesSnapshotWithoutLeftoverFiles() {
+        try {
+            Path dir = Files.createTempDirectory("duke");
+            String filePath = dir.resolve("savedTasks.txt").toString();
+
+            Storage storage = new Storage(filePath, FsyncPolicy.parse("100ms"));
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addToDo("First ToDo");
+            storage.save(allTasks);
+            allTasks.addEvent("Second Event", "26/02/1997 09:00", "26/02/1997 18:00");
+            storage.save(allTasks);
+            storage.close();
+            assertEquals(2, storage.getCompactor().getCompactionCount());
+            assertTrue(storage.getCompactor().getLastReport().startsWith("Compacted journal in "));
+
+            assertEquals(1, dir.toFile().list().length);
+            assertEquals(2, new Storage(filePath, FsyncPolicy.never()).load().size());
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testFsyncPolicy_SnapshotsForcedWhateverTheInterval() {
+        FsyncPolicy policy = FsyncPolicy.parse("3600000ms");
+        assertTrue(policy.shouldForce());
+        assertFalse(policy.shouldForce());
+        //A journal append that has just used up the interval must not leave a snapshot unforced
+        assertTrue(policy.shouldForceSnapshot());
+        assertTrue(FsyncPolicy.always().shouldForceSnapshot());
+        assertFalse(FsyncPolicy.never().shouldForceSnapshot());
+    }
+
+    @Test
+    public void testConvert_BinaryFormatRoundTrip() {
+        try {
+            Path dir = Files.createTempDirectory("duke");
+            String filePath = dir.resolve("savedTasks.txt").toString();
+
+            Storage storage = new Storage(filePath);
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addToDo("Test ToDo");
+            allTasks.addEvent("Test Event", "26/02/1997 09:00", "26/02/1997 18:00");
+            allTasks.addDeadline("Test Deadline", "01/01/1960 23:59");
+            allTasks.completeTask(3);
+            storage.save(allTasks);
+
+            File binaryFile = dir.resolve("savedTasks.bin").toFile();
+            assertEquals(3, BinaryTaskFormat.convert(new File(filePath), binaryFile));
+            assertTrue(BinaryTaskFormat.isBinary(binaryFile));
+            ArrayList<Task> loadedTasks = new Storage(binaryFile.getPath()).load().getArrayList();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(allTasks.getArrayList().get(i).getStorageFormat(), loadedTasks.get(i).getStorageFormat());
+                assertEquals(i + 1, loadedTasks.get(i).getId());
+            }
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testOpen_CorruptTaskCountRejected() throws IOException, DukeException {
+        Path dir = Files.createTempDirectory("duke");
+        File binaryFile = dir.resolve("savedTasks.bin").toFile();
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        allTasks.addToDo("Test ToDo");
+        BinaryTaskFormat.write(binaryFile, allTasks.asCollection(), FsyncPolicy.never());
+
+        for (int count : new int[] {-1, Integer.MAX_VALUE, 2}) {
+            try (RandomAccessFile file = new RandomAccessFile(binaryFile, "rw")) {
+                //The count follows the magic number and the version
+                file.seek(4 + 2);
+                file.writeInt(count);
+            }
+            assertThrows(DukeException.class, () -> MappedTaskArchive.open(binaryFile));
+            assertThrows(DukeException.class, () -> BinaryTaskFormat.read(binaryFile));
+        }
+    }
+
+    @Test
+    public void testOpen_ArchiveTasksKeptOnceCreated() throws IOException, DukeException {
+        Path dir = Files.createTempDirectory("duke");
+        File binaryFile = dir.resolve("savedTasks.bin").toFile();
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        allTasks.addToDo("Test ToDo");
+        allTasks.addDeadline("Test Deadline", "01/01/1960 23:59");
+        BinaryTaskFormat.write(binaryFile, allTasks.asCollection(), FsyncPolicy.never());
+
+        TaskList loadedTasks = new TaskList(MappedTaskArchive.open(binaryFile));
+        Task first = loadedTasks.getTask(2);
+        assertEquals(2, first.getId());
+        assertSame(first, loadedTasks.getTask(2));
+        assertSame(first, loadedTasks.getArrayList().get(1));
+    }
+
+    @Test
+    public void testParallelLoad_ChunksConcatenatedInOrder() {
+        try {
+            Path dir = Files.createTempDirectory("duke");
+            File file = dir.resolve("savedTasks.txt").toFile();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 20000; i++) {
+                sb.append("T | ").append(i % 2).append(" | ToDo number ").append(i).append("\r\n");
+            }
+            Files.write(file.toPath(), sb.toString().getBytes("UTF-8"));
+
+            ArrayList<Task> loadedTasks = new ParallelTaskLoader(new ForkJoinPool(4)).load(file);
+            assertEquals(20000, loadedTasks.size());
+            for (int i = 0; i < 20000; i++) {
+                assertEquals("T | " + (i % 2) + " | ToDo number " + i, loadedTasks.get(i).getStorageFormat());
+            }
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testExec_ScriptCommittedOnceOrRolledBack() {
+        try {
+            Path dir = Files.createTempDirectory("duke");
+            String filePath = dir.resolve("savedTasks.txt").toString();
+            Storage storage = new Storage(filePath);
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addToDo("Existing ToDo");
+            storage.save(allTasks);
+
+            Path script = dir.resolve("script.txt");
+            Files.write(script, Arrays.asList("todo Script ToDo", "", "deadline Script Deadline /by 26/02/1997 09:00",
+                    "done 2", "delete 1"));
+            new ExecCommand(script.toString()).execute(new UiResponse(), storage, allTasks);
+            assertEquals(2, allTasks.size());
+            TaskList loadedTasks = new Storage(filePath).load();
+            assertEquals(2, loadedTasks.size());
+            assertTrue(loadedTasks.getTask(2).getDoneStatus());
+
+            Path failingScript = dir.resolve("failing.txt");
+            Files.write(failingScript, Arrays.asList("todo Rolled back", "delete 3", "done 2", "done 1"));
+            assertThrows(DukeException.class, () -> new ExecCommand(failingScript.toString())
+                    .execute(new UiResponse(), storage, allTasks));
+            assertEquals(2, allTasks.size());
+            assertEquals("[D][\u2718] Script Deadline (by: 26/02/1997 09:00)", allTasks.getTask(3).toString());
+            assertEquals(4, allTasks.addToDo("After rollback").getId());
+            assertEquals(2, new Storage(filePath).load().size());
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+}
@@ -3,13 +3,20 @@ package duke.utils;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import duke.exceptions.DukeException;
 import duke.utils.TaskList;
 import duke.tasks.Task;
+import duke.tasks.ToDo;
 
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 
 public class TaskListTest {
     @Test
@@ -25,4 +32,273 @@ public class TaskListTest {
             fail();
         }
     }
+
+    @Test
+    public void testDeleteTask_IdsStableAfterDeletes() {
+        try {
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            for (int i = 1; i <= 200; i++) {
+                allTasks.addToDo("ToDo " + i);
+            }
+            for (int i = 1; i <= 150; i++) {
+                allTasks.deleteTask(i);
+            }
+            assertEquals(50, allTasks.size());
+            assertEquals("[T][\u2718] ToDo 151", allTasks.getArrayList().get(0).toString());
+            assertEquals("[T][\u2713] ToDo 175", allTasks.completeTask(175).toString());
+            assertEquals(201, allTasks.addToDo("New ToDo").getId());
+            assertThrows(DukeException.class, () -> allTasks.deleteTask(150));
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testFindWords_PostingListsIntersected() {
+        try {
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addToDo("Read book");
+            allTasks.addDeadline("Return book to library", "26/02/1997 09:00");
+            allTasks.addToDo("Return bookmark");
+            assertEquals(2, allTasks.findWords("book").size());
+            assertEquals(2, allTasks.findWords("LIBRARY return BOOK").get(0).getId());
+            allTasks.deleteTask(2);
+            allTasks.addEvent("Book fair", "26/02/1997 09:00", "26/02/1997 18:00");
+            assertEquals(4, allTasks.findWords("book").get(1).getId());
+            assertEquals(0, allTasks.findWords("D").size());
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testFindSubstring_CandidatesVerified() {
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        allTasks.addToDo("Read book");
+        allTasks.addToDo("Return bookmark");
+        allTasks.addToDo("Cook dinner");
+        assertEquals(2, allTasks.findSubstring("BOOK").size());
+        assertEquals(1, allTasks.findSubstring("okmar").size());
+        assertEquals(3, allTasks.findSubstring("o").size());
+        assertEquals(0, allTasks.findSubstring("book dinner").size());
+        assertEquals("[T][\u2718] Return bookmark", allTasks.findFuzzy("bookmrak", 2).get(0).toString());
+        assertEquals(3, allTasks.findFuzzy("ook", 1).size());
+    }
+
+    @Test
+    public void testIteratorAfter_StartsAfterIdSkippingTombstones() throws DukeException {
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        for (int i = 1; i <= 3000; i++) {
+            allTasks.addToDo(i % 2 == 0 ? "even book " + i : "odd book " + i);
+        }
+        allTasks.deleteTask(1001);
+        allTasks.deleteTask(1002);
+
+        Iterator<Task> tasks = allTasks.iteratorAfter(1000, 0);
+        assertEquals(1003, tasks.next().getId());
+        tasks = allTasks.iteratorAfter(1000, 2);
+        assertEquals(1005, tasks.next().getId());
+        assertEquals(1006, tasks.next().getId());
+        assertFalse(allTasks.iteratorAfter(3000, 0).hasNext());
+
+        ArrayList<Task> words = allTasks.findWords("even book", 1000, 3);
+        assertEquals(3, words.size());
+        assertEquals(1004, words.get(0).getId());
+        assertEquals(1008, words.get(2).getId());
+        ArrayList<Task> substrings = allTasks.findSubstring("odd", 2990, 100);
+        assertEquals(5, substrings.size());
+        assertEquals(2991, substrings.get(0).getId());
+        ArrayList<Task> fuzzy = allTasks.findFuzzy("evem", 1, 2996, 100);
+        assertEquals(2, fuzzy.size());
+        assertEquals(2998, fuzzy.get(0).getId());
+    }
+
+    @Test
+    public void testFindDue_OutstandingDeadlinesInRange() {
+        try {
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addDeadline("Third", "03/03/2020 09:00");
+            allTasks.addDeadline("First", "01/03/2020 09:00");
+            allTasks.addToDo("Not a deadline");
+            allTasks.addDeadline("Second", "02/03/2020 09:00");
+            allTasks.addDeadline("Done", "02/03/2020 10:00");
+            allTasks.completeTask(5);
+
+            long from = new DukeDate("01/03/2020 09:00").getEpochMinute();
+            long to = new DukeDate("02/03/2020 23:59").getEpochMinute();
+            ArrayList<Task> dueTasks = allTasks.findDue(from, to);
+            assertEquals(2, dueTasks.size());
+            assertEquals(2, dueTasks.get(0).getId());
+            assertEquals(4, dueTasks.get(1).getId());
+
+            allTasks.deleteTask(2);
+            allTasks.addDeadline("Later", "01/01/2021 00:00");
+            assertEquals(1, allTasks.findDue(from, to).size());
+            assertEquals(3, allTasks.findDue(Long.MIN_VALUE, Long.MAX_VALUE).size());
+        } catch (DukeException | ParseException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testFindEvents_StabbingAndOverlap() {
+        try {
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            allTasks.addEvent("Conference", "26/02/1997 09:00", "28/02/1997 18:00");
+            allTasks.addEvent("Lunch", "26/02/1997 12:00", "26/02/1997 13:00");
+            allTasks.addEvent("Dinner", "26/02/1997 19:00", "26/02/1997 21:00");
+            allTasks.addDeadline("Not an event", "26/02/1997 12:30");
+
+            long lunchTime = new DukeDate("26/02/1997 12:30").getEpochMinute();
+            ArrayList<Task> events = allTasks.findEvents(lunchTime, lunchTime);
+            assertEquals(2, events.size());
+            assertEquals(1, events.get(0).getId());
+            assertEquals(2, events.get(1).getId());
+
+            long evening = new DukeDate("26/02/1997 13:00").getEpochMinute();
+            long night = new DukeDate("26/02/1997 23:00").getEpochMinute();
+            assertEquals(3, allTasks.findEvents(evening, night).size());
+            allTasks.deleteTask(1);
+            assertEquals(2, allTasks.findEvents(evening, night).size());
+            assertEquals(0, allTasks.findEvents(night, night).size());
+        } catch (DukeException | ParseException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testCompleteTask_CachedStringsInvalidated() {
+        try {
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            Task t = allTasks.addDeadline("Return book", "26/02/1997 09:00");
+            String display = t.toString();
+            assertSame(display, t.toString());
+            assertSame(t.getStorageFormat(), t.getStorageFormat());
+
+            Task doneTask = allTasks.completeTask(t.getId());
+            assertEquals("[D][\u2713] Return book (by: 26/02/1997 09:00)", doneTask.toString());
+            assertEquals("D | 1 | Return book | 26/02/1997 09:00", doneTask.getStorageFormat());
+            assertSame(display, t.toString());
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testAsCollection_SnapshotUnchangedByLaterChanges() {
+        try {
+            TaskList allTasks = new TaskList(new ArrayList<Task>());
+            for (int i = 1; i <= 3000; i++) {
+                allTasks.addToDo("ToDo " + i);
+            }
+            Collection<Task> snapshot = allTasks.asCollection();
+            Iterator<Task> iterator = allTasks.iterator();
+            Task first = iterator.next();
+
+            //Enough deletions to compact the slots, spread over every chunk
+            for (int i = 2; i <= 3000; i += 2) {
+                allTasks.deleteTask(i);
+            }
+            for (int i = 1; i <= 1000; i += 2) {
+                allTasks.deleteTask(i);
+            }
+            allTasks.completeTask(2999);
+            allTasks.addToDo("New ToDo");
+            assertEquals(1001, allTasks.size());
+            assertEquals("[T][\u2713] ToDo 2999", allTasks.getTask(2999).toString());
+
+            assertEquals(3000, snapshot.size());
+            long expectedId = 1;
+            for (Task t : snapshot) {
+                assertEquals(expectedId, t.getId());
+                assertEquals("[T][\u2718] ToDo " + expectedId, t.toString());
+                expectedId++;
+            }
+            assertEquals(3001, expectedId);
+            assertSame(first, snapshot.iterator().next());
+            assertEquals(2, iterator.next().getId());
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testFindWords_ChangesDuringIndexBuildKept() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < 100000; i++) {
+            tasks.add(new ToDo(i % 2 == 0 ? "even task" : "odd task"));
+        }
+        TaskList allTasks = new TaskList(tasks);
+        //Changes go on while the first search builds the index
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 1; i <= 2000; i++) {
+                    allTasks.addToDo("even task");
+                    allTasks.deleteTask(2 * i - 1);
+                }
+            } catch (DukeException e) {
+                fail(e.getMessage());
+            }
+        });
+        writer.start();
+        allTasks.findWords("even");
+        writer.join();
+
+        int evenCount = 0;
+        for (Task t : allTasks) {
+            evenCount += t.getDescription().startsWith("even") ? 1 : 0;
+        }
+        assertEquals(50000, evenCount);
+        assertEquals(evenCount, allTasks.findWords("even").size());
+        assertEquals(evenCount, allTasks.findSubstring("even").size());
+    }
+
+    @Test
+    public void testTransaction_OnlyPublishedOnCommit() throws Exception {
+        TaskList allTasks = new TaskList(new ArrayList<Task>());
+        allTasks.addToDo("Read book");
+        allTasks.addDeadline("Pay fine", "01/01/2030 12:00");
+        allTasks.addToDo("Lend book");
+        allTasks.beginTransaction();
+        allTasks.addToDo("Return book");
+        allTasks.completeTask(1);
+        allTasks.deleteTask(3);
+        allTasks.addDeadline("Buy book", "01/01/2030 10:00");
+        allTasks.completeTask(2);
+        assertEquals(4, allTasks.size());
+
+        //The thread running the transaction finds its own changes
+        ArrayList<Task> foundByOwner = allTasks.findWords("book");
+        assertEquals(3, foundByOwner.size());
+        assertEquals("[T][\u2713] Read book", foundByOwner.get(0).toString());
+        assertEquals("Return book", foundByOwner.get(1).getDescription());
+        assertEquals(1, allTasks.findWords("book", 4, 1).size());
+        assertEquals(3, allTasks.findSubstring("ook").size());
+        assertEquals("Buy book", allTasks.findFuzzy("buy", 0).get(0).getDescription());
+        ArrayList<Task> dueForOwner = allTasks.findDue(0, Long.MAX_VALUE);
+        assertEquals(1, dueForOwner.size());
+        assertEquals("Buy book", dueForOwner.get(0).getDescription());
+
+        int[] sizeSeenByReader = new int[1];
+        ArrayList<Task> foundByReader = new ArrayList<Task>();
+        Thread reader = new Thread(() -> {
+            sizeSeenByReader[0] = allTasks.size();
+            foundByReader.addAll(allTasks.findWords("book"));
+        });
+        reader.start();
+        reader.join();
+        assertEquals(3, sizeSeenByReader[0]);
+        assertEquals("[T][\u2718] Read book", foundByReader.get(0).toString());
+        assertEquals(2, foundByReader.size());
+
+        allTasks.commitTransaction();
+        assertEquals(3, allTasks.findWords("book").size());
+        assertEquals("[T][\u2713] Read book", allTasks.findWords("book").get(0).toString());
+    }
 }
@@ -0,0 +1,49 @@
+package duke.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TranscriptTest {
+    @Test
+    public void testGet_SpilledEntriesReadBack() {
+        Transcript transcript = new Transcript(16, 1 << 20);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                transcript.add(i % 2 == 0, "Message \u2713 " + i);
+            }
+            assertEquals(1000, transcript.size());
+            assertEquals(984, transcript.getSpilledCount());
+            for (int i = 999; i >= 0; i--) {
+                Transcript.Entry entry = transcript.get(i);
+                assertEquals("Message \u2713 " + i, entry.getText());
+                assertEquals(i % 2 == 0, entry.isUser());
+            }
+        } finally {
+            transcript.close();
+        }
+    }
+
+    @Test
+    public void testAdd_LongEntriesSpilledToStayUnderCharLimit() {
+        Transcript transcript = new Transcript(16, 1000);
+        try {
+            StringBuilder longText = new StringBuilder();
+            for (int i = 0; i < 100000; i++) {
+                longText.append('x');
+            }
+            transcript.add(true, "list");
+            transcript.add(false, longText.toString());
+            //The latest entry is kept in memory however long it is
+            assertEquals(1, transcript.getSpilledCount());
+            transcript.add(true, "bye");
+            assertEquals(2, transcript.getSpilledCount());
+            assertEquals(longText.toString(), transcript.get(1).getText());
+            assertEquals("list", transcript.get(0).getText());
+        } finally {
+            transcript.close();
+        }
+        assertTrue(transcript.get(0).getText().startsWith("("));
+    }
+}
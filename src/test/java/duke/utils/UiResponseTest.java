@@ -0,0 +1,86 @@
+package duke.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import duke.tasks.Task;
+import duke.tasks.ToDo;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UiResponseTest {
+    @Test
+    public void testAppenders_SameTextWhetherBufferedOrStreamed() {
+        Task t = new ToDo("read book");
+        t.setId(42);
+        UiResponse ui = new UiResponse();
+        CharSequence buffer = ui.getResponseView();
+        ui.addSentence("Here are the tasks in your list:");
+        ui.addTaskWithId(t);
+        ui.addTask(t);
+        ui.append("Now you have ").append(1).append(" tasks in the list").endSentence();
+        String expected = "Here are the tasks in your list:\n\t42. [T][\u2718] read book\n"
+                + "\t[T][\u2718] read book\nNow you have 1 tasks in the list\n";
+        assertEquals(expected, ui.getResponse());
+
+        //The buffer is kept from one response to the next
+        ui.reset();
+        assertEquals("", ui.getResponse());
+        assertSame(buffer, ui.getResponseView());
+
+        List<String> sentences = new ArrayList<String>();
+        UiResponse streamingUi = new UiResponse(sentence -> sentences.add(sentence.toString()));
+        streamingUi.addSentence("Here are the tasks in your list:");
+        streamingUi.addTaskWithId(t);
+        streamingUi.addTask(t);
+        streamingUi.append("Now you have ").append(1).append(" tasks in the list").endSentence();
+        assertEquals(4, sentences.size());
+        assertEquals("\t42. [T][\u2718] read book\n", sentences.get(1));
+        assertEquals(expected, String.join("", sentences));
+        assertEquals("", streamingUi.getResponse());
+    }
+
+    @Test
+    public void testAddTaskWithId_NothingAllocatedPerRow() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        Task[] tasks = new Task[1000];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new ToDo("task number " + i);
+            tasks[i].setId(i + 1);
+            tasks[i].toString();
+        }
+        UiResponse ui = new UiResponse();
+        long threadId = Thread.currentThread().getId();
+        int rounds = 50;
+
+        //Warm up first, so that the measured rounds run compiled code and the buffer has grown
+        for (int i = 0; i < rounds; i++) {
+            listAll(ui, tasks);
+        }
+        long bytesBefore = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rounds; i++) {
+            listAll(ui, tasks);
+        }
+        long bytesPerRow = (allocations.getThreadAllocatedBytes(threadId) - bytesBefore) / (rounds * tasks.length);
+        //Rows are written straight into the reused buffer, so only the measurement itself allocates
+        assertTrue(bytesPerRow < 8, bytesPerRow + " bytes allocated per row");
+    }
+
+    private static void listAll(UiResponse ui, Task[] tasks) {
+        ui.reset();
+        ui.addSentence("Here are the tasks in your list:");
+        for (Task t : tasks) {
+            ui.addTaskWithId(t);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package duke.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+public class UiTest {
+    @Test
+    public void testPrintResponse_OneIndentedLinePerSentence() {
+        ByteArrayInputStream in = new ByteArrayInputStream("list\n".getBytes());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Ui ui = new Ui(in, out);
+        UiResponse response = new UiResponse();
+        response.addSentence("Here are the tasks in your list:");
+        response.addSentence("\t1. [T][X] read book");
+
+        assertEquals("list", ui.readLine());
+        ui.printResponse(response.getResponse());
+        //Output stays buffered until it is flushed or more input is needed
+        assertEquals(0, out.size());
+        assertNull(ui.readLine());
+        String line = "\t____________________________________________________________" + System.lineSeparator();
+        assertEquals(line + "\tHere are the tasks in your list:" + System.lineSeparator()
+                + "\t\t1. [T][X] read book" + System.lineSeparator() + line, out.toString());
+    }
+}
@@ -0,0 +1,59 @@
+package duke.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import duke.exceptions.DukeException;
+import duke.tasks.ToDo;
+
+import java.util.ArrayList;
+
+public class WriteBehindQueueTest {
+    @Test
+    public void testFlush_BurstCoalescedIntoFewCommits() {
+        try {
+            ArrayList<String> committedRecords = new ArrayList<String>();
+            WriteBehindQueue queue = new WriteBehindQueue(records -> committedRecords.addAll(records), 200);
+            for (int i = 1; i <= 50; i++) {
+                queue.enqueue(Journal.doneRecord(i));
+            }
+            queue.flush();
+
+            assertEquals(50, committedRecords.size());
+            assertEquals(Journal.doneRecord(50), committedRecords.get(49));
+            assertTrue(queue.getCommitCount() <= 3);
+            queue.close();
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+            fail();
+        }
+    }
+
+    @Test
+    public void testFlush_FailedBatchKeptAndRetriedInOrder() throws DukeException {
+        ArrayList<String> committedRecords = new ArrayList<String>();
+        boolean[] isDiskFull = {true};
+        WriteBehindQueue queue = new WriteBehindQueue(records -> {
+            if (isDiskFull[0]) {
+                throw new DukeException("Could not write to journal!");
+            }
+            committedRecords.addAll(records);
+        }, 10);
+        queue.enqueue(Journal.addRecord(new ToDo("first")));
+        assertThrows(DukeException.class, queue::flush);
+
+        //The failure belongs to the first record, so the next one is still queued
+        queue.enqueue(Journal.doneRecord(1));
+        isDiskFull[0] = false;
+        queue.flush();
+
+        assertEquals(2, committedRecords.size());
+        assertTrue(committedRecords.get(0).startsWith("add"));
+        assertEquals(Journal.doneRecord(1), committedRecords.get(1));
+        queue.close();
+    }
+}
@@ -6,21 +6,23 @@ then
     mkdir ../bin
 fi
 
-# delete output from previous run
+# delete output and saved tasks from previous run
 if [ -e "./ACTUAL.TXT" ]
 then
     rm ACTUAL.TXT
 fi
+rm -rf ./data
 
 # compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../out/production/main -Xlint:none -d ../bin ../src/main/java/*.java
+# (the GUI classes are left out, as the console launcher does not need JavaFX)
+if ! javac -Xlint:none -d ../bin $(find ../src/main/java -name '*.java' ! -path '*/gui/*' ! -name Main.java ! -name Launcher.java)
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
 # run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ../bin Duke < input.txt > ACTUAL.TXT
+java -Dfile.encoding=UTF-8 -classpath ../bin duke.ConsoleLauncher < input.txt > ACTUAL.TXT
 
 # compare the output to the expected output
 diff ACTUAL.TXT EXPECTED.TXT